@@ -0,0 +1,64 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.model;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes values for case- and accent-insensitive lookups. Entities store the
+ * normalized form in dedicated search columns, and search input goes through the same
+ * normalization, so that queries compare plain column values that an ordinary index can
+ * serve instead of wrapping the column in {@code LOWER(...)}.
+ *
+ * @author Spring PetClinic contributors
+ */
+public final class SearchNormalizer {
+
+	private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+	private static final Pattern NON_DIGITS = Pattern.compile("\\D+");
+
+	private SearchNormalizer() {
+	}
+
+	/**
+	 * Lower-case the given text and strip its accents, so that for instance
+	 * {@code "Ésteban"} becomes {@code "esteban"}.
+	 * @param text the text to normalize, may be {@literal null}
+	 * @return the normalized text, or {@literal null} if the input was {@literal null}
+	 */
+	public static String normalize(String text) {
+		if (text == null) {
+			return null;
+		}
+		String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+		return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Keep only the digits of the given telephone number, so that formatting such as
+	 * spaces or dashes does not prevent a match.
+	 * @param telephone the telephone number to normalize, may be {@literal null}
+	 * @return the digits of the telephone number, or {@literal null} if the input was
+	 * {@literal null}
+	 */
+	public static String normalizeTelephone(String telephone) {
+		return (telephone != null) ? NON_DIGITS.matcher(telephone).replaceAll("") : null;
+	}
+
+}
@@ -16,11 +16,14 @@
 package org.springframework.samples.petclinic.owner;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 
 import org.springframework.core.style.ToStringCreator;
+import org.springframework.data.domain.DomainEvents;
 import org.springframework.samples.petclinic.model.Person;
+import org.springframework.samples.petclinic.model.SearchNormalizer;
 import org.springframework.util.Assert;
 
 import jakarta.persistence.CascadeType;
@@ -28,8 +31,13 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.NotBlank;
@@ -46,8 +54,17 @@ import jakarta.validation.constraints.NotBlank;
  */
 @Entity
 @Table(name = "owners")
+@NamedEntityGraph(name = Owner.WITH_PETS, attributeNodes = @NamedAttributeNode(value = "pets", subgraph = "pet"),
+		subgraphs = @NamedSubgraph(name = "pet", attributeNodes = @NamedAttributeNode("type")))
 public class Owner extends Person {
 
+	/**
+	 * Name of the entity graph loading an owner together with its pets and their types.
+	 * Pets and visits are lazy, so each use case asks {@link OwnerRepository} for the
+	 * shape it renders.
+	 */
+	public static final String WITH_PETS = "Owner.withPets";
+
 	@Column(name = "address")
 	@NotBlank
 	private String address;
@@ -61,10 +78,35 @@ public class Owner extends Person {
 	@Pattern(regexp = "\\d{10}", message = "{telephone.invalid}")
 	private String telephone;
 
-	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+	/**
+	 * Normalized copies of the searchable columns, see {@link #updateSearchColumns()}.
+	 */
+	@Column(name = "last_name_search")
+	private String lastNameSearch;
+
+	@Column(name = "city_search")
+	private String citySearch;
+
+	@Column(name = "telephone_search")
+	private String telephoneSearch;
+
+	/**
+	 * Normalized first name, last name and telephone, unique across owners so that the
+	 * database rejects duplicate owners, see {@link #updateSearchColumns()}.
+	 */
+	@Column(name = "identity_key")
+	private String identityKey;
+
+	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
 	@JoinColumn(name = "owner_id")
 	@OrderBy("name")
-	private final List<Pet> pets = new ArrayList<>();
+	private List<Pet> pets = new ArrayList<>();
+
+	/**
+	 * Lookup structures over {@link #pets}, built on the first lookup and dropped when the
+	 * pets are changed through this owner.
+	 */
+	private transient PetIndex petIndex;
 
 	public String getAddress() {
 		return this.address;
@@ -94,12 +136,34 @@ public class Owner extends Person {
 		return this.pets;
 	}
 
+	/**
+	 * Attach pets that were read separately to an owner loaded without them, see
+	 * {@link OwnerLoader}.
+	 * @param pets the pets of this owner, ordered by name
+	 */
+	void setPets(List<Pet> pets) {
+		this.pets = new ArrayList<>(pets);
+		this.petIndex = null;
+	}
+
 	public void addPet(Pet pet) {
 		if (pet.isNew()) {
 			getPets().add(pet);
+			this.petIndex = null;
 		}
 	}
 
+	/**
+	 * Rename one of the pets of this owner. Pets listed by an owner are renamed through it,
+	 * so that it finds them by their new name.
+	 * @param pet the pet to rename, must not be {@literal null}.
+	 * @param name the new name of the pet
+	 */
+	public void renamePet(Pet pet, String name) {
+		pet.setName(name);
+		this.petIndex = null;
+	}
+
 	/**
 	 * Return the Pet with the given name, or null if none found for this Owner.
 	 * @param name to test
@@ -115,15 +179,7 @@ public class Owner extends Person {
 	 * @return the Pet with the given id, or null if no such Pet exists for this Owner
 	 */
 	public Pet getPet(Integer id) {
-		for (Pet pet : getPets()) {
-			if (!pet.isNew()) {
-				Integer compId = pet.getId();
-				if (Objects.equals(compId, id)) {
-					return pet;
-				}
-			}
-		}
-		return null;
+		return petIndex().get(id);
 	}
 
 	/**
@@ -133,15 +189,70 @@ public class Owner extends Person {
 	 * @return the Pet with the given name, or null if no such Pet exists for this Owner
 	 */
 	public Pet getPet(String name, boolean ignoreNew) {
-		for (Pet pet : getPets()) {
-			String compName = pet.getName();
-			if (compName != null && compName.equalsIgnoreCase(name)) {
-				if (!ignoreNew || !pet.isNew()) {
-					return pet;
-				}
-			}
+		return petIndex().get(name, ignoreNew);
+	}
+
+	/**
+	 * Return a pet of this Owner with the given name other than the pet with the given id,
+	 * or null if none found.
+	 * @param name to test
+	 * @param id the id of the pet to leave out
+	 * @return another Pet with the given name, or null if no such Pet exists for this
+	 * Owner
+	 */
+	public Pet getOtherPet(String name, Integer id) {
+		return petIndex().get(name, pet -> !Objects.equals(pet.getId(), id));
+	}
+
+	private PetIndex petIndex() {
+		if (this.petIndex == null) {
+			this.petIndex = new PetIndex(getPets());
 		}
-		return null;
+		return this.petIndex;
+	}
+
+	/**
+	 * Keep the search columns in sync with the values they are derived from. The owner
+	 * search compares normalized input against these columns, so that prefix searches can
+	 * use a plain index on every supported database. The identity key is derived the same
+	 * way, so owners differing only in case, accents or telephone formatting count as
+	 * duplicates.
+	 * @see SearchNormalizer
+	 */
+	@PrePersist
+	@PreUpdate
+	void updateSearchColumns() {
+		this.lastNameSearch = SearchNormalizer.normalize(getLastName());
+		this.citySearch = SearchNormalizer.normalize(this.city);
+		this.telephoneSearch = SearchNormalizer.normalizeTelephone(this.telephone);
+		this.identityKey = SearchNormalizer.normalize(getFirstName()) + '|' + this.lastNameSearch + '|'
+				+ this.telephoneSearch;
+	}
+
+	String getLastNameSearch() {
+		return this.lastNameSearch;
+	}
+
+	String getCitySearch() {
+		return this.citySearch;
+	}
+
+	String getTelephoneSearch() {
+		return this.telephoneSearch;
+	}
+
+	String getIdentityKey() {
+		return this.identityKey;
+	}
+
+	/**
+	 * Events published by Spring Data each time this owner is saved through
+	 * {@link OwnerRepository}.
+	 * @return a single {@link OwnerSavedEvent}
+	 */
+	@DomainEvents
+	Collection<Object> domainEvents() {
+		return List.of(new OwnerSavedEvent(this));
 	}
 
 	@Override
@@ -161,7 +272,9 @@ public class Owner extends Person {
 	 * @param pet the pet to remove, must not be {@literal null}.
 	 */
 	public void removePet(Pet pet) {
-		getPets().remove(pet);
+		if (getPets().remove(pet)) {
+			this.petIndex = null;
+		}
 	}
 
 	/**
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.samples.petclinic.model.SearchNormalizer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * In-process trigram index over owner cities, used to answer the city substring filter of
+ * the owner search without a {@code LIKE '%...%'} scan of the {@code owners} table.
+ * <p>
+ * Cities repeat a lot, so the index works on the distinct normalized city names: each
+ * trigram points to the cities that contain it, and each city to the ids of its owners. A
+ * lookup intersects the cities of every trigram of the query and then checks the
+ * remaining cities for the actual substring. Queries shorter than a trigram are checked
+ * against every distinct city.
+ * </p>
+ * <p>
+ * The index is built when the application context is refreshed and updated after each
+ * {@link OwnerSavedEvent}, once the saving transaction has committed.
+ * </p>
+ *
+ * @author Spring PetClinic contributors
+ */
+@Component
+class OwnerCityIndex {
+
+	/**
+	 * Above this many candidates the city filter is left to the database, rather than
+	 * sending a huge {@code IN} list.
+	 */
+	static final int MAX_CANDIDATES = 1_000;
+
+	private static final int GRAM = 3;
+
+	private final EntityManager entityManager;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Integer, String> cityById = new HashMap<>();
+
+	private final Map<String, Set<Integer>> idsByCity = new HashMap<>();
+
+	private final Map<String, Set<String>> citiesByTrigram = new HashMap<>();
+
+	private boolean ready;
+
+	OwnerCityIndex(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	/**
+	 * Rebuild the index from the {@code owners} table.
+	 */
+	@EventListener(ContextRefreshedEvent.class)
+	void rebuild() {
+		List<Object[]> rows = this.entityManager
+			.createQuery("SELECT owner.id, owner.city FROM Owner owner", Object[].class)
+			.getResultList();
+		this.lock.writeLock().lock();
+		try {
+			this.cityById.clear();
+			this.idsByCity.clear();
+			this.citiesByTrigram.clear();
+			for (Object[] row : rows) {
+				put((Integer) row[0], (String) row[1]);
+			}
+			this.ready = true;
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void onOwnerSaved(OwnerSavedEvent event) {
+		Owner owner = event.owner();
+		if (owner.getId() == null) {
+			return;
+		}
+		this.lock.writeLock().lock();
+		try {
+			put(owner.getId(), owner.getCity());
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Resolve a city substring filter to the ids of the owners whose city contains it,
+	 * ignoring case and accents.
+	 * @param query the city substring to look up
+	 * @return the ids of the matching owners, possibly empty, or an empty
+	 * {@link Optional} if the index cannot answer (not built yet, or too many matches)
+	 * and the filter must be applied by the database
+	 */
+	Optional<Set<Integer>> findOwnerIds(String query) {
+		String needle = normalize(query);
+		this.lock.readLock().lock();
+		try {
+			if (!this.ready) {
+				return Optional.empty();
+			}
+			Set<Integer> ids = new HashSet<>();
+			for (String city : candidateCities(needle)) {
+				if (city.contains(needle)) {
+					ids.addAll(this.idsByCity.get(city));
+					if (ids.size() > MAX_CANDIDATES) {
+						return Optional.empty();
+					}
+				}
+			}
+			return Optional.of(ids);
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	private Set<String> candidateCities(String needle) {
+		if (needle.length() < GRAM) {
+			return this.idsByCity.keySet();
+		}
+		Set<String> candidates = null;
+		for (String trigram : trigrams(needle)) {
+			Set<String> cities = this.citiesByTrigram.get(trigram);
+			if (cities == null) {
+				return Set.of();
+			}
+			if (candidates == null || cities.size() < candidates.size()) {
+				candidates = cities;
+			}
+		}
+		// the smallest trigram posting is enough, every candidate is checked for the
+		// full substring anyway
+		return candidates;
+	}
+
+	private void put(Integer id, String rawCity) {
+		String city = normalize(rawCity);
+		String previous = this.cityById.put(id, city);
+		if (city.equals(previous)) {
+			return;
+		}
+		if (previous != null) {
+			remove(id, previous);
+		}
+		Set<Integer> ids = this.idsByCity.computeIfAbsent(city, key -> new HashSet<>());
+		if (ids.isEmpty()) {
+			for (String trigram : trigrams(city)) {
+				this.citiesByTrigram.computeIfAbsent(trigram, key -> new HashSet<>()).add(city);
+			}
+		}
+		ids.add(id);
+	}
+
+	private void remove(Integer id, String city) {
+		Set<Integer> ids = this.idsByCity.get(city);
+		ids.remove(id);
+		if (ids.isEmpty()) {
+			this.idsByCity.remove(city);
+			for (String trigram : trigrams(city)) {
+				Set<String> cities = this.citiesByTrigram.get(trigram);
+				cities.remove(city);
+				if (cities.isEmpty()) {
+					this.citiesByTrigram.remove(trigram);
+				}
+			}
+		}
+	}
+
+	private static Set<String> trigrams(String value) {
+		Set<String> trigrams = new HashSet<>();
+		for (int i = 0; i + GRAM <= value.length(); i++) {
+			trigrams.add(value.substring(i, i + GRAM));
+		}
+		return trigrams;
+	}
+
+	private static String normalize(String city) {
+		return (city != null) ? SearchNormalizer.normalize(city) : "";
+	}
+
+}
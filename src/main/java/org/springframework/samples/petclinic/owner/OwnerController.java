@@ -15,14 +15,21 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.WebDataBinder;
@@ -32,6 +39,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.ModelAndView;
 
 import jakarta.validation.Valid;
@@ -50,10 +58,24 @@ class OwnerController {
 
 	private static final String VIEWS_OWNER_CREATE_OR_UPDATE_FORM = "owners/createOrUpdateOwnerForm";
 
+	private static final String IDENTITY_KEY_CONSTRAINT = "owners_identity_key";
+
+	private static final int PAGE_SIZE = 5;
+
 	private final OwnerRepository owners;
 
-	public OwnerController(OwnerRepository owners) {
+	private final OwnerNameTrie ownerNames;
+
+	private final OwnerLoader ownerLoader;
+
+	private final OwnerViewCache ownerViews;
+
+	public OwnerController(OwnerRepository owners, OwnerNameTrie ownerNames, OwnerLoader ownerLoader,
+			OwnerViewCache ownerViews) {
 		this.owners = owners;
+		this.ownerNames = ownerNames;
+		this.ownerLoader = ownerLoader;
+		this.ownerViews = ownerViews;
 	}
 
 	@InitBinder
@@ -64,7 +86,7 @@ class OwnerController {
 	@ModelAttribute("owner")
 	public Owner findOwner(@PathVariable(name = "ownerId", required = false) Integer ownerId) {
 		return ownerId == null ? new Owner()
-				: this.owners.findById(ownerId)
+				: this.ownerLoader.findById(ownerId)
 					.orElseThrow(() -> new IllegalArgumentException("Owner not found with id: " + ownerId
 							+ ". Please ensure the ID is correct " + "and the owner exists in the database."));
 	}
@@ -81,14 +103,11 @@ class OwnerController {
 			return VIEWS_OWNER_CREATE_OR_UPDATE_FORM;
 		}
 
-		List<Owner> duplicates = this.owners.findByFirstNameAndLastNameAndTelephone(owner.getFirstName(),
-				owner.getLastName(), owner.getTelephone());
-		if (!duplicates.isEmpty()) {
-			result.reject("duplicate", "An owner with the same first name, last name, and telephone already exists.");
+		if (!writeUnlessDuplicate(() -> this.owners.save(owner), result)) {
 			return VIEWS_OWNER_CREATE_OR_UPDATE_FORM;
 		}
-
-		this.owners.save(owner);
+		// the new owner is current and has no pets, the details page can be served from it
+		this.ownerViews.put(this.ownerLoader.detailsOf(owner), this.ownerViews.version());
 		redirectAttributes.addFlashAttribute("message", "New Owner Created");
 		return "redirect:/owners/" + owner.getId();
 	}
@@ -98,9 +117,25 @@ class OwnerController {
 		return "owners/findOwners";
 	}
 
+	/**
+	 * Suggest owners while their last name is being typed in the find form. Served from
+	 * memory, so it can be called on every keystroke.
+	 * @param query the beginning of the last name
+	 * @param limit the maximum number of suggestions
+	 * @return the matching owners, in last name order
+	 */
+	@GetMapping("/owners/autocomplete")
+	public @ResponseBody List<OwnerSuggestion> autocompleteOwners(
+			@RequestParam(name = "q", defaultValue = "") String query,
+			@RequestParam(defaultValue = "" + OwnerNameTrie.TOP_K) int limit) {
+		return this.ownerNames.suggest(query, Math.max(limit, 0));
+	}
+
 	@GetMapping("/owners")
-	public String processFindForm(@RequestParam(defaultValue = "1") int page, Owner owner, BindingResult result,
-			Model model) {
+	@Transactional(readOnly = true)
+	public String processFindForm(@RequestParam(defaultValue = "1") int page,
+			@RequestParam(required = false) String after, @RequestParam(required = false) String before, Owner owner,
+			BindingResult result, Model model) {
 		// allow parameterless GET request for /owners to return all records
 		String lastName = owner.getLastName();
 		if (lastName == null) {
@@ -117,8 +152,14 @@ class OwnerController {
 			return "owners/findOwners";
 		}
 
+		// a next/previous cursor switches to keyset pagination, page numbers use offsets
+		Optional<OwnerSearchCursor> cursor = OwnerSearchCursor.decode((after != null) ? after : before);
+		if (cursor.isPresent()) {
+			return findKeysetPageForOwners(cursor.get(), after != null, lastName, telephone, city, result, model);
+		}
+
 		// find owners by last name, telephone, and city
-		Page<Owner> ownersResults = findPaginatedForOwners(page, lastName, telephone, city);
+		Page<OwnerSummary> ownersResults = findPaginatedForOwners(page, lastName, telephone, city);
 		if (ownersResults.isEmpty()) {
 			// no owners found
 			result.rejectValue("lastName", "notFound", "not found");
@@ -127,34 +168,81 @@ class OwnerController {
 
 		if (ownersResults.getTotalElements() == 1) {
 			// 1 owner found
-			owner = ownersResults.iterator().next();
-			return "redirect:/owners/" + owner.getId();
+			return "redirect:/owners/" + ownersResults.iterator().next().id();
 		}
 
 		// multiple owners found
-		return addPaginationModel(page, model, ownersResults, lastName);
+		return addPaginationModel(page, model, ownersResults, lastName, telephone, city);
 	}
 
-	private String addPaginationModel(int page, Model model, Page<Owner> paginated, String lastName) {
-		List<Owner> listOwners = paginated.getContent();
+	private String findKeysetPageForOwners(OwnerSearchCursor cursor, boolean forward, String lastName, String telephone,
+			String city, BindingResult result, Model model) {
+		// read one extra row to find out whether there is more beyond this page
+		Limit limit = Limit.of(PAGE_SIZE + 1);
+		List<OwnerSummary> rows = forward
+				? owners.findSummariesByLastNameAndTelephoneAndCityAfter(lastName, telephone, city,
+						cursor.lastNameSearch(), cursor.id(), limit)
+				: owners.findSummariesByLastNameAndTelephoneAndCityBefore(lastName, telephone, city,
+						cursor.lastNameSearch(), cursor.id(), limit);
+		boolean hasMore = rows.size() > PAGE_SIZE;
+		List<OwnerSummary> listOwners = new ArrayList<>(rows.subList(0, Math.min(rows.size(), PAGE_SIZE)));
+		if (listOwners.isEmpty()) {
+			result.rejectValue("lastName", "notFound", "not found");
+			return "owners/findOwners";
+		}
+		if (!forward) {
+			// rows before the cursor are read in descending order
+			Collections.reverse(listOwners);
+		}
+
+		boolean hasPrevious = forward || hasMore;
+		boolean hasNext = !forward || hasMore;
+		model.addAttribute("listOwners", listOwners);
+		addCursorModel(model, listOwners, hasPrevious, hasNext);
+		addFilterModel(model, lastName, telephone, city);
+		return "owners/ownersList";
+	}
+
+	private String addPaginationModel(int page, Model model, Page<OwnerSummary> paginated, String lastName,
+			String telephone, String city) {
+		List<OwnerSummary> listOwners = paginated.getContent();
 		model.addAttribute("currentPage", page);
 		model.addAttribute("totalPages", paginated.getTotalPages());
 		model.addAttribute("totalItems", paginated.getTotalElements());
 		model.addAttribute("listOwners", listOwners);
-		model.addAttribute("lastName", lastName);
+		addCursorModel(model, listOwners, page > 1, page < paginated.getTotalPages());
+		addFilterModel(model, lastName, telephone, city);
 		return "owners/ownersList";
 	}
 
+	private void addCursorModel(Model model, List<OwnerSummary> listOwners, boolean hasPrevious, boolean hasNext) {
+		if (hasPrevious && !listOwners.isEmpty()) {
+			model.addAttribute("previousCursor", OwnerSearchCursor.of(listOwners.get(0)).encode());
+		}
+		if (hasNext && !listOwners.isEmpty()) {
+			model.addAttribute("nextCursor", OwnerSearchCursor.of(listOwners.get(listOwners.size() - 1)).encode());
+		}
+	}
+
+	private void addFilterModel(Model model, String lastName, String telephone, String city) {
+		model.addAttribute("lastName", lastName);
+		model.addAttribute("telephone", telephone);
+		model.addAttribute("city", city);
+	}
+
 	private Page<Owner> findPaginatedForOwnersLastName(int page, String lastname) {
-		int pageSize = 5;
-		Pageable pageable = PageRequest.of(page - 1, pageSize);
+		Pageable pageable = PageRequest.of(page - 1, PAGE_SIZE);
 		return owners.findByLastNameStartingWith(lastname, pageable);
 	}
 
-	private Page<Owner> findPaginatedForOwners(int page, String lastName, String telephone, String city) {
-		int pageSize = 5;
-		Pageable pageable = PageRequest.of(page - 1, pageSize);
-		return owners.findByLastNameAndTelephoneAndCity(lastName, telephone, city, pageable);
+	private Page<OwnerSummary> findPaginatedForOwners(int page, String lastName, String telephone, String city) {
+		// the list only shows a few columns, read as summaries rather than entities
+		Pageable pageable = PageRequest.of(page - 1, PAGE_SIZE);
+		if (lastName.isEmpty() && city.isEmpty() && !telephone.isEmpty()) {
+			// exact telephone lookup, served by the telephone index
+			return owners.findSummariesByTelephone(telephone, pageable);
+		}
+		return owners.findSummariesByLastNameAndTelephoneAndCity(lastName, telephone, city, pageable);
 	}
 
 	@GetMapping("/owners/{ownerId}/edit")
@@ -177,23 +265,68 @@ class OwnerController {
 		}
 
 		owner.setId(ownerId);
-		this.owners.save(owner);
+		// a single UPDATE of the edited columns, rather than merging the detached owner
+		if (!writeUnlessDuplicate(() -> this.owners.updateContactDetails(owner), result)) {
+			return VIEWS_OWNER_CREATE_OR_UPDATE_FORM;
+		}
 		redirectAttributes.addFlashAttribute("message", "Owner Values Updated");
 		return "redirect:/owners/{ownerId}";
 	}
 
+	/**
+	 * Write an owner in a single statement, letting the unique identity key of the
+	 * {@code owners} table detect duplicates rather than querying for them first, which
+	 * would cost a round trip and still let concurrent submits through.
+	 * @return {@code true} if the owner was written, {@code false} if it was rejected as
+	 * a duplicate
+	 * @throws DataIntegrityViolationException if the write violated any other constraint
+	 */
+	private boolean writeUnlessDuplicate(Runnable write, BindingResult result) {
+		try {
+			write.run();
+			return true;
+		}
+		catch (DataIntegrityViolationException ex) {
+			if (!isDuplicateOwner(ex)) {
+				throw ex;
+			}
+			result.reject("duplicate", "An owner with the same first name, last name, and telephone already exists.");
+			return false;
+		}
+	}
+
+	/**
+	 * Whether the given exception was caused by the unique identity key of the
+	 * {@code owners} table. Databases report the constraint name with their own case and
+	 * qualifiers, such as {@code PUBLIC.OWNERS_IDENTITY_KEY} or
+	 * {@code owners.owners_identity_key}.
+	 */
+	static boolean isDuplicateOwner(DataIntegrityViolationException ex) {
+		for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+				return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(IDENTITY_KEY_CONSTRAINT);
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Custom handler for displaying an owner.
 	 * @param ownerId the ID of the owner to display
 	 * @return a ModelMap with the model attributes for the view
 	 */
 	@GetMapping("/owners/{ownerId}")
+	@Transactional(readOnly = true)
 	public ModelAndView showOwner(@PathVariable("ownerId") int ownerId) {
 		ModelAndView mav = new ModelAndView("owners/ownerDetails");
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
-		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
+		// cached across requests, or the owner bound by findOwner completed with its pets
+		// and their recent visits
+		Optional<OwnerDetails> optionalDetails = this.ownerLoader.findDetailsById(ownerId);
+		OwnerDetails details = optionalDetails.orElseThrow(() -> new IllegalArgumentException(
 				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
-		mav.addObject(owner);
+		mav.addObject(details.owner());
+		mav.addObject("recentVisits", details.recentVisits());
+		mav.addObject("petsWithOlderVisits", details.petsWithOlderVisits());
 		return mav;
 	}
 
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What the owner details page shows: an owner with its pets, and only the most recent
+ * visits of each pet. Older visits are paged in on the visit history of the pet.
+ *
+ * @param owner the owner, with its pets loaded
+ * @param recentVisits the most recent visits of each pet, newest first, by pet id
+ * @param petsWithOlderVisits the ids of the pets that have more visits than shown
+ * @author Spring PetClinic contributors
+ */
+record OwnerDetails(Owner owner, Map<Integer, List<Visit>> recentVisits, Set<Integer> petsWithOlderVisits) {
+
+	/**
+	 * Number of visits shown per pet.
+	 */
+	static final int RECENT_VISITS = 5;
+
+	/**
+	 * Group visits read by {@link VisitRepository#findRecentByPetIdIn} by pet, keeping at
+	 * most {@link #RECENT_VISITS} per pet.
+	 * @param owner the owner, with its pets loaded
+	 * @param visits up to {@code RECENT_VISITS + 1} visits per pet, newest first; the
+	 * extra visit only tells that there are older ones
+	 * @return the details of the owner
+	 */
+	static OwnerDetails of(Owner owner, List<Visit> visits) {
+		Map<Integer, List<Visit>> recentVisits = new HashMap<>();
+		Set<Integer> petsWithOlderVisits = new HashSet<>();
+		for (Visit visit : visits) {
+			Integer petId = visit.getPet().getId();
+			List<Visit> petVisits = recentVisits.computeIfAbsent(petId, id -> new ArrayList<>());
+			if (petVisits.size() < RECENT_VISITS) {
+				petVisits.add(visit);
+			}
+			else {
+				petsWithOlderVisits.add(petId);
+			}
+		}
+		return new OwnerDetails(owner, Map.copyOf(recentVisits), Set.copyOf(petsWithOlderVisits));
+	}
+
+}
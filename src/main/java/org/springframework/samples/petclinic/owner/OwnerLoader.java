@@ -0,0 +1,190 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Resolves each {@link Owner} at most once per web request, so that the
+ * {@code @ModelAttribute} methods and handlers of the owner, pet and visit controllers
+ * share the same instance.
+ * <p>
+ * Open-in-view is disabled, so each {@link OwnerRepository} call runs in its own
+ * persistence context and would read the owner again. An owner is kept in the shape it
+ * was first loaded in. When a later caller needs more of the aggregate, only the pets and
+ * their visits are read and attached to it, the owner row is not queried twice.
+ * </p>
+ * <p>
+ * The owner details page is shared across requests through the {@link OwnerViewCache},
+ * see {@link #findDetailsById}.
+ * </p>
+ *
+ * @author Spring PetClinic contributors
+ */
+@Component
+@RequestScope
+class OwnerLoader {
+
+	private final OwnerRepository owners;
+
+	private final VisitRepository visits;
+
+	private final OwnerViewCache views;
+
+	/**
+	 * Version of the view cache before anything was loaded in this request.
+	 */
+	private final long viewVersion;
+
+	private final Map<Integer, Loaded> loaded = new HashMap<>();
+
+	OwnerLoader(OwnerRepository owners, VisitRepository visits, OwnerViewCache views) {
+		this.owners = owners;
+		this.visits = visits;
+		this.views = views;
+		this.viewVersion = views.version();
+	}
+
+	/**
+	 * Retrieve an {@link Owner} by id, without guarantee that its pets are loaded.
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the {@link Owner} if found
+	 * @see OwnerRepository#findById(Integer)
+	 */
+	Optional<Owner> findById(int id) {
+		return find(id, Shape.OWNER);
+	}
+
+	/**
+	 * Retrieve an {@link Owner} by id together with its pets and their types.
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the {@link Owner} if found
+	 * @see OwnerRepository#findWithPetsById(Integer)
+	 */
+	Optional<Owner> findWithPetsById(int id) {
+		return find(id, Shape.PETS);
+	}
+
+	/**
+	 * Retrieve an {@link Owner} by id together with its pets and all their visits.
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the {@link Owner} if found
+	 * @see OwnerRepository#findWithPetsAndVisitsById(Integer)
+	 */
+	Optional<Owner> findWithPetsAndVisitsById(int id) {
+		return find(id, Shape.PETS_AND_VISITS);
+	}
+
+	/**
+	 * Retrieve what the owner details page shows: the owner with its pets and their most
+	 * recent visits. The details are served from the {@link OwnerViewCache} when they are
+	 * there, and cached for the following requests when they are not.
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the {@link OwnerDetails} if the owner was
+	 * found, which must not be modified
+	 */
+	Optional<OwnerDetails> findDetailsById(int id) {
+		Optional<OwnerDetails> cached = this.views.get(id);
+		if (cached.isPresent()) {
+			return cached;
+		}
+		Optional<OwnerDetails> details = findWithPetsById(id).map(this::detailsOf);
+		details.ifPresent(loaded -> this.views.put(loaded, this.viewVersion));
+		return details;
+	}
+
+	/**
+	 * Complete an owner whose pets are loaded with the most recent visits of each pet,
+	 * read in a single query.
+	 * @param owner the owner, with its pets loaded
+	 * @return the details of the owner
+	 */
+	OwnerDetails detailsOf(Owner owner) {
+		List<Integer> petIds = owner.getPets().stream().map(Pet::getId).toList();
+		if (petIds.isEmpty()) {
+			return OwnerDetails.of(owner, List.of());
+		}
+		// one visit more than shown per pet tells whether there are older ones
+		return OwnerDetails.of(owner, this.visits.findRecentByPetIdIn(petIds, OwnerDetails.RECENT_VISITS + 1));
+	}
+
+	private Optional<Owner> find(int id, Shape shape) {
+		Loaded previous = this.loaded.get(id);
+		if (previous != null && previous.shape().compareTo(shape) >= 0) {
+			return previous.owner();
+		}
+		Loaded current;
+		if (previous == null) {
+			current = new Loaded(load(id, shape), shape);
+		}
+		else {
+			// the owner row is known, only read what it is missing
+			previous.owner()
+				.ifPresent(owner -> owner.setPets((shape == Shape.PETS) ? this.owners.findPetsByOwnerId(id)
+						: this.owners.findPetsWithVisitsByOwnerId(id)));
+			current = new Loaded(previous.owner(), shape);
+		}
+		this.loaded.put(id, current);
+		return current.owner();
+	}
+
+	private Optional<Owner> load(int id, Shape shape) {
+		if (shape == Shape.OWNER) {
+			Optional<OwnerDetails> cached = this.views.get(id);
+			if (cached.isPresent()) {
+				// a copy, so that binding a form to it never touches the shared view
+				return cached.map(OwnerDetails::owner).map(OwnerLoader::contactDetailsOf);
+			}
+		}
+		return switch (shape) {
+			case OWNER -> this.owners.findById(id);
+			case PETS -> this.owners.findWithPetsById(id);
+			case PETS_AND_VISITS -> this.owners.findWithPetsAndVisitsById(id);
+		};
+	}
+
+	private static Owner contactDetailsOf(Owner view) {
+		Owner owner = new Owner();
+		owner.setId(view.getId());
+		owner.setFirstName(view.getFirstName());
+		owner.setLastName(view.getLastName());
+		owner.setAddress(view.getAddress());
+		owner.setCity(view.getCity());
+		owner.setTelephone(view.getTelephone());
+		// the search columns as saved, for the listeners of the events published with it
+		owner.updateSearchColumns();
+		return owner;
+	}
+
+	/**
+	 * How much of the owner aggregate is loaded, from least to most.
+	 */
+	private enum Shape {
+
+		OWNER, PETS, PETS_AND_VISITS
+
+	}
+
+	private record Loaded(Optional<Owner> owner, Shape shape) {
+	}
+
+}
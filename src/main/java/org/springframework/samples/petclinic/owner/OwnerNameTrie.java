@@ -0,0 +1,341 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.samples.petclinic.model.SearchNormalizer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * In-memory prefix trie over the normalized owner last names, serving the owner
+ * autocomplete without touching the database.
+ * <p>
+ * Children are kept in sorted {@code char} arrays rather than maps to keep the nodes
+ * small. Every node caches the first {@value #TOP_K} owners of its subtree, in the same
+ * (last name, id) order as the owner search, so a lookup is a walk down the prefix
+ * followed by a copy of at most {@value #TOP_K} suggestions.
+ * </p>
+ * <p>
+ * The trie is built when the application context is refreshed and updated incrementally
+ * after each {@link OwnerSavedEvent}, once the saving transaction has committed. Readers
+ * and writers are separated by a {@link ReadWriteLock}.
+ * </p>
+ *
+ * @author Spring PetClinic contributors
+ */
+@Component
+class OwnerNameTrie {
+
+	/**
+	 * Maximum number of suggestions kept per node, and so returned per lookup.
+	 */
+	static final int TOP_K = 10;
+
+	private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::key)
+		.thenComparingInt(entry -> entry.suggestion().id());
+
+	private static final char[] NO_LABELS = {};
+
+	private static final Node[] NO_CHILDREN = {};
+
+	private static final Entry[] NO_ENTRIES = {};
+
+	private final EntityManager entityManager;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private Map<Integer, Entry> entries = new HashMap<>();
+
+	private Node root = new Node();
+
+	OwnerNameTrie(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	/**
+	 * Rebuild the trie from the {@code owners} table.
+	 */
+	@EventListener(ContextRefreshedEvent.class)
+	void rebuild() {
+		List<OwnerSuggestion> owners = this.entityManager
+			.createQuery("SELECT owner.id, owner.firstName, owner.lastName FROM Owner owner", Object[].class)
+			.getResultList()
+			.stream()
+			.map(row -> new OwnerSuggestion((Integer) row[0], (String) row[1], (String) row[2]))
+			.toList();
+		replaceAll(owners);
+	}
+
+	/**
+	 * Replace the content of the trie with the given owners.
+	 * @param owners the owners to index
+	 */
+	void replaceAll(Collection<OwnerSuggestion> owners) {
+		// built aside and in order, so that the top lists fill up with the first owners
+		// and later ones are rejected by a single comparison
+		List<Entry> sorted = new ArrayList<>(owners.size());
+		for (OwnerSuggestion owner : owners) {
+			sorted.add(Entry.of(owner));
+		}
+		sorted.sort(ORDER);
+		Map<Integer, Entry> newEntries = new HashMap<>();
+		Node newRoot = new Node();
+		for (Entry entry : sorted) {
+			newEntries.put(entry.suggestion().id(), entry);
+			insert(newRoot, entry);
+		}
+		this.lock.writeLock().lock();
+		try {
+			this.entries = newEntries;
+			this.root = newRoot;
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void onOwnerSaved(OwnerSavedEvent event) {
+		Owner owner = event.owner();
+		if (owner.getId() != null) {
+			put(new OwnerSuggestion(owner.getId(), owner.getFirstName(), owner.getLastName()));
+		}
+	}
+
+	/**
+	 * Add the given owner to the trie, or update it if it is already there.
+	 * @param owner the owner to index
+	 */
+	void put(OwnerSuggestion owner) {
+		Entry entry = Entry.of(owner);
+		this.lock.writeLock().lock();
+		try {
+			Entry previous = this.entries.put(owner.id(), entry);
+			if (entry.equals(previous)) {
+				return;
+			}
+			if (previous != null) {
+				remove(this.root, previous);
+			}
+			insert(this.root, entry);
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Suggest the owners whose last name starts with the given prefix, ignoring case and
+	 * accents, in last name order.
+	 * @param prefix the beginning of the last name
+	 * @param limit the maximum number of suggestions, capped at {@value #TOP_K}
+	 * @return the suggested owners
+	 */
+	List<OwnerSuggestion> suggest(String prefix, int limit) {
+		String key = normalize(prefix);
+		this.lock.readLock().lock();
+		try {
+			Node node = this.root;
+			for (int i = 0; i < key.length() && node != null; i++) {
+				node = node.child(key.charAt(i));
+			}
+			if (node == null) {
+				return List.of();
+			}
+			int count = Math.min(Math.min(limit, TOP_K), node.top.length);
+			List<OwnerSuggestion> suggestions = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				suggestions.add(node.top[i].suggestion());
+			}
+			return suggestions;
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	private static void insert(Node root, Entry entry) {
+		Node node = root;
+		node.offer(entry);
+		for (int i = 0; i < entry.key().length(); i++) {
+			node = node.childOrCreate(entry.key().charAt(i));
+			node.offer(entry);
+		}
+		node.terminal = insertSorted(node.terminal, entry);
+	}
+
+	private static void remove(Node root, Entry entry) {
+		String key = entry.key();
+		Node[] path = new Node[key.length() + 1];
+		path[0] = root;
+		for (int i = 0; i < key.length(); i++) {
+			path[i + 1] = path[i].child(key.charAt(i));
+		}
+		Node last = path[key.length()];
+		last.terminal = removeFrom(last.terminal, entry);
+		// bottom-up, so that each node is recomputed from up-to-date children
+		for (int i = key.length(); i >= 0; i--) {
+			Node node = path[i];
+			if (i > 0 && node.isEmpty()) {
+				path[i - 1].removeChild(key.charAt(i - 1));
+			}
+			else if (Arrays.asList(node.top).contains(entry)) {
+				node.recomputeTop();
+			}
+		}
+	}
+
+	private static Entry[] insertSorted(Entry[] entries, Entry entry) {
+		int index = Arrays.binarySearch(entries, entry, ORDER);
+		if (index >= 0) {
+			return entries;
+		}
+		int position = -(index + 1);
+		Entry[] result = new Entry[entries.length + 1];
+		System.arraycopy(entries, 0, result, 0, position);
+		result[position] = entry;
+		System.arraycopy(entries, position, result, position + 1, entries.length - position);
+		return result;
+	}
+
+	private static Entry[] removeFrom(Entry[] entries, Entry entry) {
+		int index = Arrays.binarySearch(entries, entry, ORDER);
+		if (index < 0) {
+			return entries;
+		}
+		Entry[] result = new Entry[entries.length - 1];
+		System.arraycopy(entries, 0, result, 0, index);
+		System.arraycopy(entries, index + 1, result, index, entries.length - index - 1);
+		return result;
+	}
+
+	private static String normalize(String lastName) {
+		return (lastName != null) ? SearchNormalizer.normalize(lastName) : "";
+	}
+
+	/**
+	 * An indexed owner, with the normalized last name it is filed under.
+	 */
+	private record Entry(String key, OwnerSuggestion suggestion) {
+
+		static Entry of(OwnerSuggestion owner) {
+			return new Entry(normalize(owner.lastName()), owner);
+		}
+
+	}
+
+	private static final class Node {
+
+		private char[] labels = NO_LABELS;
+
+		private Node[] children = NO_CHILDREN;
+
+		/**
+		 * The first {@link #TOP_K} entries of this subtree, in {@link #ORDER}.
+		 */
+		private Entry[] top = NO_ENTRIES;
+
+		/**
+		 * The entries whose key ends at this node, in {@link #ORDER}.
+		 */
+		private Entry[] terminal = NO_ENTRIES;
+
+		Node child(char label) {
+			int index = Arrays.binarySearch(this.labels, label);
+			return (index >= 0) ? this.children[index] : null;
+		}
+
+		Node childOrCreate(char label) {
+			int index = Arrays.binarySearch(this.labels, label);
+			if (index >= 0) {
+				return this.children[index];
+			}
+			int position = -(index + 1);
+			char[] labels = new char[this.labels.length + 1];
+			Node[] children = new Node[this.children.length + 1];
+			System.arraycopy(this.labels, 0, labels, 0, position);
+			System.arraycopy(this.children, 0, children, 0, position);
+			labels[position] = label;
+			children[position] = new Node();
+			System.arraycopy(this.labels, position, labels, position + 1, this.labels.length - position);
+			System.arraycopy(this.children, position, children, position + 1, this.children.length - position);
+			this.labels = labels;
+			this.children = children;
+			return children[position];
+		}
+
+		void removeChild(char label) {
+			int index = Arrays.binarySearch(this.labels, label);
+			if (index < 0) {
+				return;
+			}
+			char[] labels = new char[this.labels.length - 1];
+			Node[] children = new Node[this.children.length - 1];
+			System.arraycopy(this.labels, 0, labels, 0, index);
+			System.arraycopy(this.children, 0, children, 0, index);
+			System.arraycopy(this.labels, index + 1, labels, index, labels.length - index);
+			System.arraycopy(this.children, index + 1, children, index, children.length - index);
+			this.labels = labels;
+			this.children = children;
+		}
+
+		boolean isEmpty() {
+			return this.terminal.length == 0 && this.labels.length == 0;
+		}
+
+		/**
+		 * Take the given entry into the top list if it sorts among the first
+		 * {@link #TOP_K}.
+		 */
+		void offer(Entry entry) {
+			if (this.top.length == TOP_K && ORDER.compare(entry, this.top[TOP_K - 1]) >= 0) {
+				return;
+			}
+			Entry[] top = insertSorted(this.top, entry);
+			this.top = (top.length > TOP_K) ? Arrays.copyOf(top, TOP_K) : top;
+		}
+
+		/**
+		 * Rebuild the top list from the entries ending here and the top lists of the
+		 * children, which together hold the first {@link #TOP_K} entries of the subtree.
+		 */
+		void recomputeTop() {
+			List<Entry> candidates = new ArrayList<>(
+					Arrays.asList(this.terminal).subList(0, Math.min(this.terminal.length, TOP_K)));
+			for (Node child : this.children) {
+				candidates.addAll(Arrays.asList(child.top));
+			}
+			candidates.sort(ORDER);
+			this.top = candidates.subList(0, Math.min(candidates.size(), TOP_K)).toArray(Entry[]::new);
+		}
+
+	}
+
+}
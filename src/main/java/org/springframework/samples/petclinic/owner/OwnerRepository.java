@@ -15,14 +15,27 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository class for <code>Owner</code> domain objects. All method names are compliant
@@ -36,7 +49,18 @@ import org.springframework.data.repository.query.Param;
  * @author Michael Isvy
  * @author Wick Dynex
  */
-public interface OwnerRepository extends JpaRepository<Owner, Integer> {
+public interface OwnerRepository extends JpaRepository<Owner, Integer>, OwnerSearchRepository, OwnerUpdateRepository {
+
+	/**
+	 * Name of the cache holding owner search result pages.
+	 */
+	String SEARCH_CACHE = "ownerSearch";
+
+	/**
+	 * Name of the cache holding the {@link OwnerDetails} shown on the owner details page,
+	 * see {@link OwnerViewCache}.
+	 */
+	String VIEW_CACHE = "ownerViews";
 
 	/**
 	 * Retrieve {@link Owner}s from the data store by last name, returning all owners
@@ -48,28 +72,138 @@ public interface OwnerRepository extends JpaRepository<Owner, Integer> {
 	Page<Owner> findByLastNameStartingWith(String lastName, Pageable pageable);
 
 	/**
-	 * Retrieve {@link Owner}s from the data store by any combination of last name,
-	 * telephone, and city. Each filter is only applied when its parameter is non-empty.
-	 * When all parameters are empty, all owners are returned (same as a parameterless
-	 * search).
+	 * Retrieve the {@link OwnerSummary summaries} of the owners matching any combination of
+	 * last name, telephone, and city, which the owners list page is rendered from. Each
+	 * filter is only applied when its parameter is non-empty. When all parameters are
+	 * empty, all owners are returned (same as a parameterless search).
+	 * <p>
+	 * The search runs in two phases: the page is cut over owner ids in SQL, with only the
+	 * predicates of the criteria that were filled in (see {@link OwnerSearchRepository}),
+	 * then only the displayed columns of the owners of that page are read (see
+	 * {@link #findSummariesInOrder}). Combining a collection join with paging in a single
+	 * query would force Hibernate to read every matching row and slice the page in memory.
+	 * </p>
+	 * <p>
+	 * The page is read as a {@link Slice} with one row of lookahead. The total is only
+	 * counted when that row shows there are more pages, and then comes from the cached
+	 * {@link #countByLastNameAndTelephoneAndCity count}; on the last page it follows from
+	 * the page itself. A typical search therefore costs a single id query.
+	 * </p>
+	 * <p>
+	 * Result pages are cached by their normalized criteria and page, and evicted when an
+	 * owner is saved (see {@link OwnerSearchCacheEvictor}).
+	 * </p>
+	 * @param lastName Value to search for (prefix match, case-insensitive)
+	 * @param telephone Exact telephone number to match (only applied when non-empty)
+	 * @param city City substring to match (case-insensitive, only applied when non-empty)
+	 * @return a {@link Page} of matching {@link OwnerSummary summaries} ordered by last
+	 * name and id (or an empty Page if none found)
+	 */
+	@Cacheable(cacheNames = SEARCH_CACHE, keyGenerator = OwnerSearchKey.Generator.NAME)
+	@Transactional(readOnly = true)
+	default Page<OwnerSummary> findSummariesByLastNameAndTelephoneAndCity(String lastName, String telephone,
+			String city, Pageable pageable) {
+		Slice<Integer> ids = findIdsByLastNameAndTelephoneAndCity(lastName, telephone, city, pageable);
+		return toPage(new SliceImpl<>(findSummariesInOrder(ids.getContent()), ids.getPageable(), ids.hasNext()),
+				pageable, () -> countByLastNameAndTelephoneAndCity(lastName, telephone, city));
+	}
+
+	/**
+	 * Telephone-only variant of {@link #findSummariesByLastNameAndTelephoneAndCity}. A
+	 * telephone number matches few owners, so all their ids are resolved at once (see
+	 * {@link #findIdsByTelephone}), which gives the total for free, and only the owners of
+	 * the requested page are summarized.
+	 * @param telephone Exact telephone number to match
+	 * @return a {@link Page} of matching {@link OwnerSummary summaries} ordered by last
+	 * name and id (or an empty Page if none found)
+	 */
+	@Transactional(readOnly = true)
+	default Page<OwnerSummary> findSummariesByTelephone(String telephone, Pageable pageable) {
+		List<Integer> ids = findIdsByTelephone(telephone);
+		if (pageable.isUnpaged()) {
+			return new PageImpl<>(findSummariesInOrder(ids));
+		}
+		int from = (int) Math.min(pageable.getOffset(), ids.size());
+		int to = Math.min(from + pageable.getPageSize(), ids.size());
+		return new PageImpl<>(findSummariesInOrder(ids.subList(from, to)), pageable, ids.size());
+	}
+
+	/**
+	 * Keyset variant of {@link #findSummariesByLastNameAndTelephoneAndCity}: retrieve the
+	 * summaries of the owners that sort strictly after the given ({@code lastNameSearch},
+	 * {@code id}) key, in ascending order. Unlike offset pagination, the cost of this
+	 * query does not grow with the depth of the page being read, and no total count is
+	 * computed.
+	 * @param lastName Value to search for (prefix match, case-insensitive)
+	 * @param telephone Exact telephone number to match (only applied when non-empty)
+	 * @param city City substring to match (case-insensitive, only applied when non-empty)
+	 * @param afterLastNameSearch normalized last name of the row to seek past
+	 * @param afterId id of the row to seek past
+	 * @param limit maximum number of owners to return
+	 * @return the matching {@link OwnerSummary summaries} ordered by normalized last
+	 * name and id
+	 */
+	@Transactional(readOnly = true)
+	default List<OwnerSummary> findSummariesByLastNameAndTelephoneAndCityAfter(String lastName, String telephone,
+			String city, String afterLastNameSearch, Integer afterId, Limit limit) {
+		return findSummariesInOrder(findIdsByLastNameAndTelephoneAndCityAfter(lastName, telephone, city,
+				afterLastNameSearch, afterId, limit));
+	}
+
+	/**
+	 * Keyset variant of {@link #findSummariesByLastNameAndTelephoneAndCity}: retrieve the
+	 * summaries of the owners that sort strictly before the given ({@code lastNameSearch},
+	 * {@code id}) key, in <i>descending</i> order so that the rows closest to the key come
+	 * first.
 	 * @param lastName Value to search for (prefix match, case-insensitive)
 	 * @param telephone Exact telephone number to match (only applied when non-empty)
 	 * @param city City substring to match (case-insensitive, only applied when non-empty)
-	 * @return a {@link Page} of matching {@link Owner}s (or an empty Page if none found)
+	 * @param beforeLastNameSearch normalized last name of the row to seek before
+	 * @param beforeId id of the row to seek before
+	 * @param limit maximum number of owners to return
+	 * @return the matching {@link OwnerSummary summaries} ordered by normalized last
+	 * name and id, descending
 	 */
-	@Query("SELECT DISTINCT owner FROM Owner owner LEFT JOIN FETCH owner.pets "
-			+ "WHERE (:lastName IS NULL OR LOWER(owner.lastName) LIKE LOWER(CONCAT(:lastName, '%'))) "
-			+ "AND (:telephone = '' OR owner.telephone = :telephone) "
-			+ "AND (:city = '' OR LOWER(owner.city) LIKE LOWER(CONCAT('%', :city, '%')))")
-	Page<Owner> findByLastNameAndTelephoneAndCity(@Param("lastName") String lastName,
-			@Param("telephone") String telephone, @Param("city") String city, Pageable pageable);
+	@Transactional(readOnly = true)
+	default List<OwnerSummary> findSummariesByLastNameAndTelephoneAndCityBefore(String lastName, String telephone,
+			String city, String beforeLastNameSearch, Integer beforeId, Limit limit) {
+		return findSummariesInOrder(findIdsByLastNameAndTelephoneAndCityBefore(lastName, telephone, city,
+				beforeLastNameSearch, beforeId, limit));
+	}
+
+	/**
+	 * Retrieve the {@link OwnerSummary summaries} of the owners with the given ids: only
+	 * the columns of the owners list, and the names of their pets aggregated by the
+	 * database. The rows are read into records by a constructor expression, so no entity
+	 * is loaded, nor kept in the persistence context for dirty checking.
+	 * @param ids the ids of the owners to summarize
+	 * @return the matching {@link OwnerSummary summaries}, in no particular order
+	 */
+	@Query("SELECT new org.springframework.samples.petclinic.owner.OwnerSummary(owner.id, owner.firstName,"
+			+ " owner.lastName, owner.address, owner.city, owner.telephone,"
+			+ " listagg(pet.name, ', ') WITHIN GROUP (ORDER BY pet.name), owner.lastNameSearch)"
+			+ " FROM Owner owner LEFT JOIN owner.pets pet WHERE owner.id IN :ids"
+			+ " GROUP BY owner.id, owner.firstName, owner.lastName, owner.address, owner.city, owner.telephone,"
+			+ " owner.lastNameSearch")
+	@Transactional(readOnly = true)
+	List<OwnerSummary> findSummariesByIdIn(@Param("ids") Collection<Integer> ids);
+
+	/**
+	 * Second phase of the owner search for the owners list page: summarize the owners
+	 * with the given ids, keeping the order of the ids.
+	 * @param ids the ids of the owners to summarize, in the order they should be returned
+	 * @return the matching {@link OwnerSummary summaries} in the order of the given ids
+	 */
+	default List<OwnerSummary> findSummariesInOrder(List<Integer> ids) {
+		return ids.isEmpty() ? List.of() : inOrder(ids, findSummariesByIdIn(ids), OwnerSummary::id);
+	}
 
 	/**
 	 * Retrieve an {@link Owner} from the data store by id.
 	 * <p>
 	 * This method returns an {@link Optional} containing the {@link Owner} if found. If
 	 * no {@link Owner} is found with the provided id, it will return an empty
-	 * {@link Optional}.
+	 * {@link Optional}. Only the owner itself is loaded, its pets are left unloaded.
 	 * </p>
 	 * @param id the id to search for
 	 * @return an {@link Optional} containing the {@link Owner} if found, or an empty
@@ -80,13 +214,85 @@ public interface OwnerRepository extends JpaRepository<Owner, Integer> {
 	Optional<Owner> findById(Integer id);
 
 	/**
-	 * Retrieve {@link Owner}s from the data store that match the given first name, last
-	 * name, and telephone number. Used to detect duplicate owners before creation.
-	 * @param firstName the owner's first name
-	 * @param lastName the owner's last name
-	 * @param telephone the owner's telephone number
-	 * @return a list of matching {@link Owner}s (or an empty list if none found)
+	 * Retrieve an {@link Owner} by id together with its pets and their types, in a single
+	 * query. The visits of the pets are left unloaded.
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the {@link Owner} if found, or an empty
+	 * {@link Optional} if not found.
+	 */
+	@EntityGraph(Owner.WITH_PETS)
+	@Transactional(readOnly = true)
+	Optional<Owner> findWithPetsById(Integer id);
+
+	/**
+	 * Retrieve an {@link Owner} by id together with its pets and all their visits.
+	 * <p>
+	 * The pets and the visits are read by two queries in the same transaction, the second
+	 * one filling in the visits of the pets returned by the first. Fetching both levels in
+	 * one query would repeat every pet once per visit.
+	 * </p>
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the {@link Owner} if found, or an empty
+	 * {@link Optional} if not found.
+	 */
+	@Transactional(readOnly = true)
+	default Optional<Owner> findWithPetsAndVisitsById(Integer id) {
+		Optional<Owner> owner = findWithPetsById(id);
+		if (owner.isPresent() && !owner.get().getPets().isEmpty()) {
+			findPetsWithVisitsByOwnerId(id);
+		}
+		return owner;
+	}
+
+	/**
+	 * Retrieve the {@link Pet}s of the given owner, fetching their types in the same
+	 * query. Their visits are left unloaded.
+	 * @param ownerId the id of the owner
+	 * @return the owner's {@link Pet}s, ordered by name
+	 */
+	@Query("SELECT pet FROM Pet pet LEFT JOIN FETCH pet.type WHERE pet.owner.id = :ownerId ORDER BY pet.name")
+	@Transactional(readOnly = true)
+	List<Pet> findPetsByOwnerId(@Param("ownerId") Integer ownerId);
+
+	/**
+	 * Retrieve the {@link Pet}s of the given owner, fetching their types and visits in
+	 * the same query.
+	 * @param ownerId the id of the owner
+	 * @return the owner's {@link Pet}s, ordered by name
+	 */
+	@Query("SELECT DISTINCT pet FROM Pet pet LEFT JOIN FETCH pet.type LEFT JOIN FETCH pet.visits"
+			+ " WHERE pet.owner.id = :ownerId ORDER BY pet.name")
+	@Transactional(readOnly = true)
+	List<Pet> findPetsWithVisitsByOwnerId(@Param("ownerId") Integer ownerId);
+
+	private static <T> List<T> inOrder(List<Integer> ids, List<T> rows, Function<T, Integer> idOf) {
+		Map<Integer, T> byId = new HashMap<>();
+		for (T row : rows) {
+			byId.put(idOf.apply(row), row);
+		}
+		List<T> ordered = new ArrayList<>(ids.size());
+		for (Integer id : ids) {
+			T row = byId.get(id);
+			if (row != null) {
+				ordered.add(row);
+			}
+		}
+		return ordered;
+	}
+
+	/**
+	 * Turn a slice read with one row of lookahead into a page, counting the total only
+	 * when the slice shows there are more pages.
 	 */
-	List<Owner> findByFirstNameAndLastNameAndTelephone(String firstName, String lastName, String telephone);
+	private static <T> Page<T> toPage(Slice<T> slice, Pageable pageable, LongSupplier count) {
+		List<T> content = slice.getContent();
+		if (pageable.isUnpaged()) {
+			return new PageImpl<>(content);
+		}
+		if (!slice.hasNext() && (!content.isEmpty() || pageable.getOffset() == 0)) {
+			return new PageImpl<>(content, pageable, pageable.getOffset() + content.size());
+		}
+		return new PageImpl<>(content, pageable, count.getAsLong());
+	}
 
 }
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+/**
+ * Domain event published by {@link OwnerRepository#save} whenever an {@link Owner} is
+ * saved, including saves that only cascade changes to the owner's pets and visits.
+ * In-process indexes over owner data listen for it to stay in sync with the database.
+ *
+ * @param owner the saved owner
+ */
+public record OwnerSavedEvent(Owner owner) {
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts the cached owner search pages and counts once a saved owner has been committed.
+ * <p>
+ * A saved owner may join, leave or move within any search, and shifts the later pages of
+ * each, so both caches are cleared. Every save also advances a generation number that is
+ * part of each {@link OwnerSearchKey}. A page or count read before the save but cached
+ * after the eviction is therefore stored under the previous generation, where no later
+ * lookup finds it. Such entries are only left for the bounds of the cache to drop.
+ * </p>
+ *
+ * @author Spring PetClinic contributors
+ * @see OwnerRepository#findSummariesByLastNameAndTelephoneAndCity
+ * @see OwnerSearchRepository#countByLastNameAndTelephoneAndCity
+ */
+@Component
+class OwnerSearchCacheEvictor {
+
+	private static final String[] CACHES = { OwnerRepository.SEARCH_CACHE, OwnerSearchRepository.COUNT_CACHE };
+
+	private final CacheManager cacheManager;
+
+	private final AtomicLong generation = new AtomicLong();
+
+	OwnerSearchCacheEvictor(CacheManager cacheManager) {
+		this.cacheManager = cacheManager;
+	}
+
+	/**
+	 * Return the current generation, to be read before searching.
+	 * @return the number of owner saves seen so far
+	 */
+	long generation() {
+		return this.generation.get();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void onOwnerSaved(OwnerSavedEvent event) {
+		this.generation.incrementAndGet();
+		for (String name : CACHES) {
+			Cache cache = this.cacheManager.getCache(name);
+			if (cache != null) {
+				cache.clear();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.samples.petclinic.model.SearchNormalizer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Fills the search columns and identity key of the owners written without them, such as
+ * the sample data or the owners of a database created before these columns existed.
+ * <p>
+ * The values are derived by {@link Owner#updateSearchColumns()}, with the same
+ * {@link SearchNormalizer} as search input, which plain SQL cannot reproduce on every
+ * supported database. It runs when the application context is refreshed, before the
+ * in-process indexes read the owners, and also corrects the rows whose columns differ
+ * from what it derives. As the identity key is unique, of owners that were already
+ * duplicated only the first by id gets one, the others keep none.
+ * </p>
+ *
+ * @author Spring PetClinic contributors
+ */
+@Component
+public class OwnerSearchColumnsBackfill {
+
+	private final EntityManager entityManager;
+
+	OwnerSearchColumnsBackfill(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	/**
+	 * Derive the search columns of every owner, and update the rows they differ from.
+	 */
+	@EventListener(ContextRefreshedEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@Transactional
+	public void backfill() {
+		List<Object[]> rows = this.entityManager
+			.createQuery("SELECT owner.id, owner.firstName, owner.lastName, owner.city, owner.telephone, "
+					+ "owner.lastNameSearch, owner.citySearch, owner.telephoneSearch, owner.identityKey "
+					+ "FROM Owner owner ORDER BY owner.id", Object[].class)
+			.getResultList();
+		Set<String> identityKeys = new HashSet<>();
+		List<Columns> changed = new ArrayList<>();
+		List<Integer> rekeyed = new ArrayList<>();
+		for (Object[] row : rows) {
+			Owner owner = new Owner();
+			owner.setFirstName((String) row[1]);
+			owner.setLastName((String) row[2]);
+			owner.setCity((String) row[3]);
+			owner.setTelephone((String) row[4]);
+			owner.updateSearchColumns();
+			String identityKey = identityKeys.add(owner.getIdentityKey()) ? owner.getIdentityKey() : null;
+			Columns derived = new Columns((Integer) row[0], owner.getLastNameSearch(), owner.getCitySearch(),
+					owner.getTelephoneSearch(), identityKey);
+			Columns stored = new Columns((Integer) row[0], (String) row[5], (String) row[6], (String) row[7],
+					(String) row[8]);
+			if (!derived.equals(stored)) {
+				changed.add(derived);
+				if (!Objects.equals(derived.identityKey(), stored.identityKey())) {
+					rekeyed.add(derived.id());
+				}
+			}
+		}
+		if (!rekeyed.isEmpty()) {
+			// release the keys that move first, so that no update meets a key still held
+			this.entityManager.createQuery("UPDATE Owner owner SET owner.identityKey = NULL WHERE owner.id IN :ids")
+				.setParameter("ids", rekeyed)
+				.executeUpdate();
+		}
+		for (Columns columns : changed) {
+			this.entityManager
+				.createQuery("UPDATE Owner owner SET owner.lastNameSearch = :lastNameSearch, "
+						+ "owner.citySearch = :citySearch, owner.telephoneSearch = :telephoneSearch, "
+						+ "owner.identityKey = :identityKey WHERE owner.id = :id")
+				.setParameter("lastNameSearch", columns.lastNameSearch())
+				.setParameter("citySearch", columns.citySearch())
+				.setParameter("telephoneSearch", columns.telephoneSearch())
+				.setParameter("identityKey", columns.identityKey())
+				.setParameter("id", columns.id())
+				.executeUpdate();
+		}
+	}
+
+	private record Columns(int id, String lastNameSearch, String citySearch, String telephoneSearch,
+			String identityKey) {
+	}
+
+}
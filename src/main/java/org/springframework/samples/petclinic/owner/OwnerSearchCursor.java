@@ -0,0 +1,82 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Opaque position within the owner search results, used for keyset ("seek") pagination.
+ * <p>
+ * A cursor captures the sort key ({@code lastNameSearch}, {@code id}) of a boundary row,
+ * so the next or previous page can be read with a range predicate on that key instead of
+ * an {@code OFFSET} scan. The encoded form is URL safe and is not meant to be
+ * interpreted by clients.
+ * </p>
+ *
+ * @param lastNameSearch the normalized last name of the boundary owner
+ * @param id the id of the boundary owner, used as a tie breaker
+ */
+record OwnerSearchCursor(String lastNameSearch, int id) {
+
+	private static final char SEPARATOR = ':';
+
+	/**
+	 * Create a cursor positioned on the given owner.
+	 * @param owner the boundary owner, must have been persisted
+	 * @return a cursor for the owner's sort key
+	 */
+	static OwnerSearchCursor of(OwnerSummary owner) {
+		return new OwnerSearchCursor(owner.lastNameSearch(), owner.id());
+	}
+
+	/**
+	 * Decode a cursor previously produced by {@link #encode()}.
+	 * @param token the encoded cursor, may be {@literal null}
+	 * @return the decoded cursor, or an empty {@link Optional} if the token is missing or
+	 * malformed
+	 */
+	static Optional<OwnerSearchCursor> decode(String token) {
+		if (!StringUtils.hasText(token)) {
+			return Optional.empty();
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = raw.indexOf(SEPARATOR);
+			if (separator < 1) {
+				return Optional.empty();
+			}
+			int id = Integer.parseInt(raw.substring(0, separator));
+			return Optional.of(new OwnerSearchCursor(raw.substring(separator + 1), id));
+		}
+		catch (IllegalArgumentException ex) {
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Encode this cursor into an opaque, URL safe token.
+	 * @return the encoded cursor
+	 */
+	String encode() {
+		String raw = this.id + String.valueOf(SEPARATOR) + this.lastNameSearch;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
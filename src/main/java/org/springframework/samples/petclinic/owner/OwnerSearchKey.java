@@ -0,0 +1,72 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.lang.reflect.Method;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.data.domain.Pageable;
+import org.springframework.samples.petclinic.model.SearchNormalizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache key of an owner search result page or count. The criteria are normalized the same
+ * way as the search itself, so that {@code "Davis"} and {@code "davis"} share an entry.
+ *
+ * @param generation the {@link OwnerSearchCacheEvictor#generation()} read before the
+ * search
+ * @param lastName the normalized last name prefix, empty if not filtered
+ * @param telephone the normalized telephone number, empty if not filtered
+ * @param city the normalized city substring, empty if not filtered
+ * @param offset the offset of the page, or {@code -1} if unpaged
+ * @param size the size of the page, or {@code -1} if unpaged
+ */
+record OwnerSearchKey(long generation, String lastName, String telephone, String city, long offset, int size) {
+
+	static OwnerSearchKey of(long generation, String lastName, String telephone, String city, Pageable pageable) {
+		return new OwnerSearchKey(generation, normalize(SearchNormalizer.normalize(lastName)),
+				normalize(SearchNormalizer.normalizeTelephone(telephone)), normalize(SearchNormalizer.normalize(city)),
+				pageable.isPaged() ? pageable.getOffset() : -1, pageable.isPaged() ? pageable.getPageSize() : -1);
+	}
+
+	private static String normalize(String value) {
+		return (value != null) ? value : "";
+	}
+
+	/**
+	 * {@link KeyGenerator} for
+	 * {@link OwnerRepository#findSummariesByLastNameAndTelephoneAndCity}.
+	 */
+	@Component(Generator.NAME)
+	static class Generator implements KeyGenerator {
+
+		static final String NAME = "ownerSearchKeyGenerator";
+
+		private final OwnerSearchCacheEvictor evictor;
+
+		Generator(OwnerSearchCacheEvictor evictor) {
+			this.evictor = evictor;
+		}
+
+		@Override
+		public Object generate(Object target, Method method, Object... params) {
+			return OwnerSearchKey.of(this.evictor.generation(), (String) params[0], (String) params[1],
+					(String) params[2], (Pageable) params[3]);
+		}
+
+	}
+
+}
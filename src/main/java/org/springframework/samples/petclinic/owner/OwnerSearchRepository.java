@@ -0,0 +1,104 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Repository fragment for the owner search. The queries are assembled at runtime from the
+ * criteria that were actually filled in, so each combination of last name, telephone and
+ * city gets its own statement (and its own execution plan) instead of sharing one
+ * catch-all query made of {@code (:param = '' OR ...)} predicates.
+ * <p>
+ * Empty criteria are ignored. When all criteria are empty, all owners match.
+ * </p>
+ *
+ * @author Spring PetClinic contributors
+ * @see OwnerRepository#findSummariesByLastNameAndTelephoneAndCity
+ */
+public interface OwnerSearchRepository {
+
+	/**
+	 * Name of the cache holding search result counts.
+	 */
+	String COUNT_CACHE = "ownerSearchCounts";
+
+	/**
+	 * Slice the ids of the matching owners, ordered by normalized last name and id. One
+	 * row more than the page size is read to tell whether there is a next slice, so no
+	 * count query is needed.
+	 * @param lastName Value to search for (prefix match, case-insensitive)
+	 * @param telephone Exact telephone number to match
+	 * @param city City substring to match (case-insensitive)
+	 * @param pageable the pagination information
+	 * @return a {@link Slice} of owner ids
+	 */
+	Slice<Integer> findIdsByLastNameAndTelephoneAndCity(String lastName, String telephone, String city,
+			Pageable pageable);
+
+	/**
+	 * Retrieve the ids of the owners with the given telephone number, ignoring its
+	 * formatting. This is an exact match, answered from the {@link OwnerTelephoneIndex}
+	 * when it is available and otherwise from the indexed telephone search column.
+	 * @param telephone Exact telephone number to match
+	 * @return the owner ids ordered by normalized last name and id
+	 */
+	List<Integer> findIdsByTelephone(String telephone);
+
+	/**
+	 * Count the matching owners. The result is kept in the {@value #COUNT_CACHE} cache, if
+	 * there is one, under an {@link OwnerSearchKey} until an owner is saved, so totals
+	 * shown to users may briefly lag behind concurrent changes.
+	 * @param lastName Value to search for (prefix match, case-insensitive)
+	 * @param telephone Exact telephone number to match
+	 * @param city City substring to match (case-insensitive)
+	 * @return the number of matching owners
+	 */
+	long countByLastNameAndTelephoneAndCity(String lastName, String telephone, String city);
+
+	/**
+	 * Retrieve the ids of the matching owners that sort strictly after the given
+	 * ({@code lastNameSearch}, {@code id}) key, in ascending order.
+	 * @param lastName Value to search for (prefix match, case-insensitive)
+	 * @param telephone Exact telephone number to match
+	 * @param city City substring to match (case-insensitive)
+	 * @param afterLastNameSearch normalized last name of the row to seek past
+	 * @param afterId id of the row to seek past
+	 * @param limit maximum number of ids to return
+	 * @return the owner ids ordered by normalized last name and id
+	 */
+	List<Integer> findIdsByLastNameAndTelephoneAndCityAfter(String lastName, String telephone, String city,
+			String afterLastNameSearch, Integer afterId, Limit limit);
+
+	/**
+	 * Retrieve the ids of the matching owners that sort strictly before the given
+	 * ({@code lastNameSearch}, {@code id}) key, in descending order.
+	 * @param lastName Value to search for (prefix match, case-insensitive)
+	 * @param telephone Exact telephone number to match
+	 * @param city City substring to match (case-insensitive)
+	 * @param beforeLastNameSearch normalized last name of the row to seek before
+	 * @param beforeId id of the row to seek before
+	 * @param limit maximum number of ids to return
+	 * @return the owner ids ordered by normalized last name and id, descending
+	 */
+	List<Integer> findIdsByLastNameAndTelephoneAndCityBefore(String lastName, String telephone, String city,
+			String beforeLastNameSearch, Integer beforeId, Limit limit);
+
+}
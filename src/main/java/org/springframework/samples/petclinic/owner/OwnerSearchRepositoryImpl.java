@@ -0,0 +1,249 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.samples.petclinic.model.SearchNormalizer;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Criteria API implementation of {@link OwnerSearchRepository}. Only the predicates for
+ * the criteria that were filled in are added to the query. The input is normalized with
+ * {@link SearchNormalizer} and compared against the normalized search columns of
+ * {@link Owner}, which plain indexes can serve.
+ * <p>
+ * The city filter is resolved to candidate owner ids through the {@link OwnerCityIndex}
+ * when it is available, so the database gets an {@code id IN (...)} predicate instead of
+ * a {@code LIKE '%...%'} that no index can serve. A city matching nobody answers the
+ * search without a query. Telephone-only lookups are answered by the
+ * {@link OwnerTelephoneIndex} in the same way.
+ * </p>
+ * <p>
+ * Counts are cached explicitly rather than through {@code @Cacheable}: the repository
+ * calls them from its own default methods, which would bypass the caching proxy.
+ * </p>
+ *
+ * @author Spring PetClinic contributors
+ */
+@Transactional(readOnly = true)
+class OwnerSearchRepositoryImpl implements OwnerSearchRepository {
+
+	private static final char LIKE_ESCAPE = '\\';
+
+	private final EntityManager entityManager;
+
+	private final ObjectProvider<OwnerCityIndex> cityIndex;
+
+	private final ObjectProvider<OwnerTelephoneIndex> telephoneIndex;
+
+	private final ObjectProvider<CacheManager> cacheManager;
+
+	private final ObjectProvider<OwnerSearchCacheEvictor> cacheEvictor;
+
+	OwnerSearchRepositoryImpl(EntityManager entityManager, ObjectProvider<OwnerCityIndex> cityIndex,
+			ObjectProvider<OwnerTelephoneIndex> telephoneIndex, ObjectProvider<CacheManager> cacheManager,
+			ObjectProvider<OwnerSearchCacheEvictor> cacheEvictor) {
+		this.entityManager = entityManager;
+		this.cityIndex = cityIndex;
+		this.telephoneIndex = telephoneIndex;
+		this.cacheManager = cacheManager;
+		this.cacheEvictor = cacheEvictor;
+	}
+
+	@Override
+	public Slice<Integer> findIdsByLastNameAndTelephoneAndCity(String lastName, String telephone, String city,
+			Pageable pageable) {
+		Optional<Set<Integer>> cityIds = findCityCandidates(city);
+		if (isEmpty(cityIds)) {
+			return new SliceImpl<>(List.of(), pageable, false);
+		}
+		CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+		CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+		Root<Owner> owner = query.from(Owner.class);
+		query.select(owner.get("id"))
+			.where(searchPredicates(cb, owner, lastName, telephone, city, cityIds).toArray(Predicate[]::new))
+			.orderBy(cb.asc(owner.get("lastNameSearch")), cb.asc(owner.get("id")));
+
+		TypedQuery<Integer> typedQuery = this.entityManager.createQuery(query);
+		if (pageable.isUnpaged()) {
+			return new SliceImpl<>(typedQuery.getResultList());
+		}
+		// read one row ahead to find out whether there is a next slice
+		List<Integer> ids = typedQuery.setFirstResult((int) pageable.getOffset())
+			.setMaxResults(pageable.getPageSize() + 1)
+			.getResultList();
+		boolean hasNext = ids.size() > pageable.getPageSize();
+		return new SliceImpl<>(hasNext ? ids.subList(0, pageable.getPageSize()) : ids, pageable, hasNext);
+	}
+
+	@Override
+	public List<Integer> findIdsByTelephone(String telephone) {
+		OwnerTelephoneIndex index = this.telephoneIndex.getIfAvailable();
+		Optional<List<Integer>> ids = (index != null) ? index.findOwnerIds(telephone) : Optional.empty();
+		if (ids.isPresent()) {
+			return ids.get();
+		}
+		return this.entityManager
+			.createQuery("SELECT owner.id FROM Owner owner WHERE owner.telephoneSearch = :telephone "
+					+ "ORDER BY owner.lastNameSearch, owner.id", Integer.class)
+			.setParameter("telephone", SearchNormalizer.normalizeTelephone(telephone))
+			.getResultList();
+	}
+
+	@Override
+	public long countByLastNameAndTelephoneAndCity(String lastName, String telephone, String city) {
+		CacheManager cacheManager = this.cacheManager.getIfAvailable();
+		Cache counts = (cacheManager != null) ? cacheManager.getCache(COUNT_CACHE) : null;
+		OwnerSearchCacheEvictor evictor = this.cacheEvictor.getIfAvailable();
+		if (counts == null || evictor == null) {
+			return count(lastName, telephone, city);
+		}
+		OwnerSearchKey key = OwnerSearchKey.of(evictor.generation(), lastName, telephone, city, Pageable.unpaged());
+		Long count = counts.get(key, () -> count(lastName, telephone, city));
+		return (count != null) ? count : 0;
+	}
+
+	private long count(String lastName, String telephone, String city) {
+		Optional<Set<Integer>> cityIds = findCityCandidates(city);
+		if (isEmpty(cityIds)) {
+			return 0;
+		}
+		CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		Root<Owner> owner = query.from(Owner.class);
+		query.select(cb.count(owner))
+			.where(searchPredicates(cb, owner, lastName, telephone, city, cityIds).toArray(Predicate[]::new));
+		return this.entityManager.createQuery(query).getSingleResult();
+	}
+
+	@Override
+	public List<Integer> findIdsByLastNameAndTelephoneAndCityAfter(String lastName, String telephone, String city,
+			String afterLastNameSearch, Integer afterId, Limit limit) {
+		return seek(lastName, telephone, city, afterLastNameSearch, afterId, limit, true);
+	}
+
+	@Override
+	public List<Integer> findIdsByLastNameAndTelephoneAndCityBefore(String lastName, String telephone, String city,
+			String beforeLastNameSearch, Integer beforeId, Limit limit) {
+		return seek(lastName, telephone, city, beforeLastNameSearch, beforeId, limit, false);
+	}
+
+	private List<Integer> seek(String lastName, String telephone, String city, String keyLastNameSearch, Integer keyId,
+			Limit limit, boolean forward) {
+		Optional<Set<Integer>> cityIds = findCityCandidates(city);
+		if (isEmpty(cityIds)) {
+			return List.of();
+		}
+		CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+		CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+		Root<Owner> owner = query.from(Owner.class);
+		Path<String> ownerLastNameSearch = owner.get("lastNameSearch");
+		Path<Integer> ownerId = owner.get("id");
+
+		List<Predicate> predicates = searchPredicates(cb, owner, lastName, telephone, city, cityIds);
+		if (forward) {
+			predicates.add(cb.or(cb.greaterThan(ownerLastNameSearch, keyLastNameSearch),
+					cb.and(cb.equal(ownerLastNameSearch, keyLastNameSearch), cb.greaterThan(ownerId, keyId))));
+			query.orderBy(cb.asc(ownerLastNameSearch), cb.asc(ownerId));
+		}
+		else {
+			predicates.add(cb.or(cb.lessThan(ownerLastNameSearch, keyLastNameSearch),
+					cb.and(cb.equal(ownerLastNameSearch, keyLastNameSearch), cb.lessThan(ownerId, keyId))));
+			query.orderBy(cb.desc(ownerLastNameSearch), cb.desc(ownerId));
+		}
+		query.select(ownerId).where(predicates.toArray(Predicate[]::new));
+
+		TypedQuery<Integer> typedQuery = this.entityManager.createQuery(query);
+		if (limit.isLimited()) {
+			typedQuery.setMaxResults(limit.max());
+		}
+		return typedQuery.getResultList();
+	}
+
+	/**
+	 * Resolve the city filter through the city index, if there is one and it can answer.
+	 */
+	private Optional<Set<Integer>> findCityCandidates(String city) {
+		if (!StringUtils.hasLength(city)) {
+			return Optional.empty();
+		}
+		OwnerCityIndex index = this.cityIndex.getIfAvailable();
+		return (index != null) ? index.findOwnerIds(city) : Optional.empty();
+	}
+
+	private static boolean isEmpty(Optional<Set<Integer>> cityIds) {
+		return cityIds.isPresent() && cityIds.get().isEmpty();
+	}
+
+	/**
+	 * Build the predicates for the criteria that were filled in, leaving out the others.
+	 * The city filter becomes an id predicate when candidate ids are given.
+	 */
+	private static List<Predicate> searchPredicates(CriteriaBuilder cb, Root<Owner> owner, String lastName,
+			String telephone, String city, Optional<Set<Integer>> cityIds) {
+		List<Predicate> predicates = new ArrayList<>(3);
+		if (StringUtils.hasLength(lastName)) {
+			predicates.add(cb.like(owner.get("lastNameSearch"), escapeLike(lastName) + "%", LIKE_ESCAPE));
+		}
+		if (StringUtils.hasLength(telephone)) {
+			predicates.add(cb.equal(owner.get("telephoneSearch"), SearchNormalizer.normalizeTelephone(telephone)));
+		}
+		if (cityIds.isPresent()) {
+			predicates.add(owner.get("id").in(cityIds.get()));
+		}
+		else if (StringUtils.hasLength(city)) {
+			predicates.add(cb.like(owner.get("citySearch"), "%" + escapeLike(city) + "%", LIKE_ESCAPE));
+		}
+		return predicates;
+	}
+
+	/**
+	 * Normalize the given user input and escape the LIKE wildcards it contains, so that
+	 * they are matched literally.
+	 */
+	private static String escapeLike(String value) {
+		String normalized = SearchNormalizer.normalize(value);
+		StringBuilder escaped = new StringBuilder(normalized.length());
+		for (char c : normalized.toCharArray()) {
+			if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+				escaped.append(LIKE_ESCAPE);
+			}
+			escaped.append(c);
+		}
+		return escaped.toString();
+	}
+
+}
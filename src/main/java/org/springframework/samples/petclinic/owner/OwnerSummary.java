@@ -0,0 +1,42 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+/**
+ * An owner as listed in the owner search results: only the displayed columns, with the
+ * names of its pets already joined in SQL.
+ * <p>
+ * Summaries are read by a constructor expression, see
+ * {@link OwnerRepository#findSummariesByIdIn}, so no entity is managed for them and the
+ * persistence context keeps no snapshot to dirty-check.
+ * </p>
+ *
+ * @param id the owner id
+ * @param firstName the owner's first name
+ * @param lastName the owner's last name
+ * @param address the owner's address
+ * @param city the owner's city
+ * @param telephone the owner's telephone
+ * @param petNames the names of the owner's pets in alphabetical order, separated by
+ * commas, or {@literal null} if the owner has no pets
+ * @param lastNameSearch the normalized last name the search results are ordered by, kept
+ * for the keyset pagination cursors
+ * @author Spring PetClinic contributors
+ */
+public record OwnerSummary(Integer id, String firstName, String lastName, String address, String city,
+		String telephone, String petNames, String lastNameSearch) {
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.samples.petclinic.model.SearchNormalizer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * In-process hash index from normalized telephone numbers to owner ids, answering
+ * caller-ID style lookups and telephone-only owner searches without a query.
+ * <p>
+ * The owners sharing a number are kept in the same (normalized last name, id) order as
+ * the owner search, so the ids can be paged directly.
+ * </p>
+ * <p>
+ * The index is built when the application context is refreshed and updated after each
+ * {@link OwnerSavedEvent}, once the saving transaction has committed.
+ * </p>
+ *
+ * @author Spring PetClinic contributors
+ */
+@Component
+class OwnerTelephoneIndex {
+
+	private static final Comparator<Entry> ORDER = Comparator
+		.comparing(Entry::lastNameSearch, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+		.thenComparingInt(Entry::id);
+
+	private final EntityManager entityManager;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Integer, Entry> entryById = new HashMap<>();
+
+	private final Map<String, NavigableSet<Entry>> entriesByTelephone = new HashMap<>();
+
+	private boolean ready;
+
+	OwnerTelephoneIndex(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	/**
+	 * Rebuild the index from the {@code owners} table.
+	 */
+	@EventListener(ContextRefreshedEvent.class)
+	void rebuild() {
+		List<Object[]> rows = this.entityManager
+			.createQuery("SELECT owner.id, owner.lastNameSearch, owner.telephone FROM Owner owner", Object[].class)
+			.getResultList();
+		this.lock.writeLock().lock();
+		try {
+			this.entryById.clear();
+			this.entriesByTelephone.clear();
+			for (Object[] row : rows) {
+				put(Entry.of((Integer) row[0], (String) row[1], (String) row[2]));
+			}
+			this.ready = true;
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void onOwnerSaved(OwnerSavedEvent event) {
+		Owner owner = event.owner();
+		if (owner.getId() == null) {
+			return;
+		}
+		this.lock.writeLock().lock();
+		try {
+			String lastNameSearch = (owner.getLastNameSearch() != null) ? owner.getLastNameSearch()
+					: SearchNormalizer.normalize(owner.getLastName());
+			put(Entry.of(owner.getId(), lastNameSearch, owner.getTelephone()));
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Look up the owners with the given telephone number, ignoring its formatting.
+	 * @param telephone the telephone number to look up
+	 * @return the ids of the matching owners ordered by last name and id, possibly empty,
+	 * or an empty {@link Optional} if the index is not built yet
+	 */
+	Optional<List<Integer>> findOwnerIds(String telephone) {
+		String key = normalize(telephone);
+		this.lock.readLock().lock();
+		try {
+			if (!this.ready) {
+				return Optional.empty();
+			}
+			NavigableSet<Entry> entries = this.entriesByTelephone.get(key);
+			if (entries == null) {
+				return Optional.of(List.of());
+			}
+			List<Integer> ids = new ArrayList<>(entries.size());
+			for (Entry entry : entries) {
+				ids.add(entry.id());
+			}
+			return Optional.of(ids);
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	private void put(Entry entry) {
+		Entry previous = this.entryById.put(entry.id(), entry);
+		if (entry.equals(previous)) {
+			return;
+		}
+		if (previous != null) {
+			NavigableSet<Entry> entries = this.entriesByTelephone.get(previous.telephone());
+			entries.remove(previous);
+			if (entries.isEmpty()) {
+				this.entriesByTelephone.remove(previous.telephone());
+			}
+		}
+		this.entriesByTelephone.computeIfAbsent(entry.telephone(), key -> new TreeSet<>(ORDER)).add(entry);
+	}
+
+	private static String normalize(String telephone) {
+		return (telephone != null) ? SearchNormalizer.normalizeTelephone(telephone) : "";
+	}
+
+	/**
+	 * An indexed owner, with the normalized telephone number it is filed under.
+	 */
+	private record Entry(int id, String lastNameSearch, String telephone) {
+
+		static Entry of(int id, String lastNameSearch, String telephone) {
+			return new Entry(id, lastNameSearch, normalize(telephone));
+		}
+
+	}
+
+}
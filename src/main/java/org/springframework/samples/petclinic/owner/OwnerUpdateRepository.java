@@ -0,0 +1,63 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+package org.springframework.samples.petclinic.owner;
+
+/**
+ * Repository fragment for the edit forms. Each method writes only the columns its form
+ * edits, with a single {@code UPDATE} statement, instead of merging a detached
+ * {@link Owner} back, which reads the owner again and rewrites every column. Pets are
+ * deleted the same way, rather than by orphan removal.
+ * <p>
+ * Like a save, each update publishes an {@link OwnerSavedEvent}, so that the in-memory
+ * owner indexes and the owner search cache follow the change once it is committed.
+ * </p>
+ *
+ * @author Spring PetClinic contributors
+ */
+public interface OwnerUpdateRepository {
+
+	/**
+	 * Update the name, address, city and telephone of the given owner, together with the
+	 * search columns derived from them.
+	 * @param owner the owner to update, with its id set
+	 * @throws org.springframework.dao.DataIntegrityViolationException if another owner
+	 * has the same first name, last name and telephone
+	 */
+	void updateContactDetails(Owner owner);
+
+	/**
+	 * Update the name, birth date and type of the given pet, provided it belongs to the
+	 * given owner.
+	 * @param owner the owner of the pet
+	 * @param pet the pet to update, with its id set
+	 * @return {@code true} if the pet was updated, {@code false} if the owner has no pet
+	 * with that id
+	 */
+	boolean updatePetDetails(Owner owner, Pet pet);
+
+	/**
+	 * Delete the given pet and its visits, provided the pet belongs to the given owner.
+	 * Both are deleted with set-based statements that check the owner themselves, so
+	 * neither the other pets of the owner nor any visit is loaded.
+	 * @param owner the owner of the pet
+	 * @param petId the id of the pet to delete
+	 * @return {@code true} if the pet was deleted, {@code false} if the owner has no pet
+	 * with that id
+	 */
+	boolean deletePet(Owner owner, int petId);
+
+}
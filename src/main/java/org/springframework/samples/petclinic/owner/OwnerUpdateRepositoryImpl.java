@@ -0,0 +1,104 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+package org.springframework.samples.petclinic.owner;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * JPQL implementation of {@link OwnerUpdateRepository}.
+ *
+ * @author Spring PetClinic contributors
+ */
+@Transactional
+class OwnerUpdateRepositoryImpl implements OwnerUpdateRepository {
+
+	private final EntityManager entityManager;
+
+	private final ApplicationEventPublisher events;
+
+	OwnerUpdateRepositoryImpl(EntityManager entityManager, ApplicationEventPublisher events) {
+		this.entityManager = entityManager;
+		this.events = events;
+	}
+
+	@Override
+	public void updateContactDetails(Owner owner) {
+		// bulk updates skip the entity callbacks, so derive the search columns here
+		owner.updateSearchColumns();
+		this.entityManager
+			.createQuery("UPDATE Owner owner SET owner.firstName = :firstName, owner.lastName = :lastName, "
+					+ "owner.address = :address, owner.city = :city, owner.telephone = :telephone, "
+					+ "owner.lastNameSearch = :lastNameSearch, owner.citySearch = :citySearch, "
+					+ "owner.telephoneSearch = :telephoneSearch, owner.identityKey = :identityKey "
+					+ "WHERE owner.id = :id")
+			.setParameter("firstName", owner.getFirstName())
+			.setParameter("lastName", owner.getLastName())
+			.setParameter("address", owner.getAddress())
+			.setParameter("city", owner.getCity())
+			.setParameter("telephone", owner.getTelephone())
+			.setParameter("lastNameSearch", owner.getLastNameSearch())
+			.setParameter("citySearch", owner.getCitySearch())
+			.setParameter("telephoneSearch", owner.getTelephoneSearch())
+			.setParameter("identityKey", owner.getIdentityKey())
+			.setParameter("id", owner.getId())
+			.executeUpdate();
+		this.events.publishEvent(new OwnerSavedEvent(owner));
+	}
+
+	@Override
+	public boolean updatePetDetails(Owner owner, Pet pet) {
+		int updated = this.entityManager
+			.createQuery("UPDATE Pet pet SET pet.name = :name, pet.birthDate = :birthDate, pet.type = :type "
+					+ "WHERE pet.id = :id AND pet.owner.id = :ownerId")
+			.setParameter("name", pet.getName())
+			.setParameter("birthDate", pet.getBirthDate())
+			.setParameter("type", pet.getType())
+			.setParameter("id", pet.getId())
+			.setParameter("ownerId", owner.getId())
+			.executeUpdate();
+		if (updated == 0) {
+			return false;
+		}
+		this.events.publishEvent(new OwnerSavedEvent(owner));
+		return true;
+	}
+
+	@Override
+	public boolean deletePet(Owner owner, int petId) {
+		// the visits reference the pet, they go first
+		this.entityManager
+			.createQuery("DELETE FROM Visit visit WHERE visit.pet.id IN "
+					+ "(SELECT pet.id FROM Pet pet WHERE pet.id = :id AND pet.owner.id = :ownerId)")
+			.setParameter("id", petId)
+			.setParameter("ownerId", owner.getId())
+			.executeUpdate();
+		int deleted = this.entityManager
+			.createQuery("DELETE FROM Pet pet WHERE pet.id = :id AND pet.owner.id = :ownerId")
+			.setParameter("id", petId)
+			.setParameter("ownerId", owner.getId())
+			.executeUpdate();
+		if (deleted == 0) {
+			return false;
+		}
+		this.events.publishEvent(new OwnerSavedEvent(owner));
+		return true;
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.Hibernate;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Short-lived cache of {@link OwnerDetails}, from which the owner details page is
+ * rendered. Most navigation ends on that page, usually through a redirect right after the
+ * owner was loaded or written, so it would otherwise read the same aggregate again.
+ * <p>
+ * Cached details are shared between requests and must not be modified. Every write to an
+ * owner, its pets or their visits evicts them. The writes also advance a version number,
+ * and details are only cached if the version has not moved since they were loaded. A load
+ * that races with a write can therefore never put back the state from before the write.
+ * </p>
+ *
+ * @author Spring PetClinic contributors
+ * @see OwnerRepository#VIEW_CACHE
+ */
+@Component
+class OwnerViewCache {
+
+	private final CacheManager cacheManager;
+
+	private final AtomicLong version = new AtomicLong();
+
+	OwnerViewCache(CacheManager cacheManager) {
+		this.cacheManager = cacheManager;
+	}
+
+	/**
+	 * Return the current version, to be read before loading an owner that will be passed
+	 * to {@link #put}.
+	 * @return the number of owner writes seen so far
+	 */
+	long version() {
+		return this.version.get();
+	}
+
+	/**
+	 * Look up the cached details of an owner.
+	 * @param ownerId the id of the owner
+	 * @return the details of the owner, or an empty {@link Optional} if they are not
+	 * cached
+	 */
+	Optional<OwnerDetails> get(int ownerId) {
+		Cache cache = this.cacheManager.getCache(OwnerRepository.VIEW_CACHE);
+		return Optional.ofNullable((cache != null) ? cache.get(ownerId, OwnerDetails.class) : null);
+	}
+
+	/**
+	 * Cache the details of an owner, unless an owner was written since the given version
+	 * or the owner's pets are not loaded.
+	 * @param details the details to cache
+	 * @param loadedAt the {@link #version()} read before the owner was loaded
+	 */
+	void put(OwnerDetails details, long loadedAt) {
+		Cache cache = this.cacheManager.getCache(OwnerRepository.VIEW_CACHE);
+		Integer ownerId = details.owner().getId();
+		if (cache == null || ownerId == null || !Hibernate.isInitialized(details.owner().getPets())
+				|| this.version.get() != loadedAt) {
+			return;
+		}
+		cache.put(ownerId, details);
+		if (this.version.get() != loadedAt) {
+			// a write slipped in between the check and the put
+			cache.evict(ownerId);
+		}
+	}
+
+	/**
+	 * Evict an owner after it, one of its pets or one of their visits was written.
+	 * @param ownerId the id of the owner
+	 */
+	void evict(int ownerId) {
+		this.version.incrementAndGet();
+		Cache cache = this.cacheManager.getCache(OwnerRepository.VIEW_CACHE);
+		if (cache != null) {
+			cache.evict(ownerId);
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void onOwnerSaved(OwnerSavedEvent event) {
+		Integer ownerId = event.owner().getId();
+		if (ownerId != null) {
+			evict(ownerId);
+		}
+	}
+
+}
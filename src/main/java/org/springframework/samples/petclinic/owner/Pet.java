@@ -57,7 +57,7 @@ public class Pet extends NamedEntity {
 	@JoinColumn(name = "owner_id", insertable = false, updatable = false)
 	private Owner owner;
 
-	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
 	@JoinColumn(name = "pet_id")
 	@OrderBy("date ASC")
 	private final Set<Visit> visits = new LinkedHashSet<>();
@@ -17,7 +17,6 @@ package org.springframework.samples.petclinic.owner;
 
 import java.time.LocalDate;
 import java.util.Collection;
-import java.util.Objects;
 import java.util.Optional;
 
 import org.springframework.stereotype.Controller;
@@ -53,9 +52,12 @@ class PetController {
 
 	private final PetTypeRepository types;
 
-	public PetController(OwnerRepository owners, PetTypeRepository types) {
+	private final OwnerLoader ownerLoader;
+
+	public PetController(OwnerRepository owners, PetTypeRepository types, OwnerLoader ownerLoader) {
 		this.owners = owners;
 		this.types = types;
+		this.ownerLoader = ownerLoader;
 	}
 
 	@ModelAttribute("types")
@@ -65,7 +67,7 @@ class PetController {
 
 	@ModelAttribute("owner")
 	public Owner findOwner(@PathVariable("ownerId") int ownerId) {
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
+		Optional<Owner> optionalOwner = this.ownerLoader.findWithPetsById(ownerId);
 		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
 				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
 		return owner;
@@ -79,7 +81,7 @@ class PetController {
 			return new Pet();
 		}
 
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
+		Optional<Owner> optionalOwner = this.ownerLoader.findWithPetsById(ownerId);
 		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
 				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
 		return owner.getPet(petId);
@@ -135,13 +137,13 @@ class PetController {
 
 		String petName = pet.getName();
 
-		// checking if the pet name already exists for the owner
-		if (StringUtils.hasText(petName)) {
-			Pet existingPet = owner.getPet(petName, false);
-			if (existingPet != null && !Objects.equals(existingPet.getId(), pet.getId())) {
-				result.rejectValue("name", "duplicate", "already exists");
-			}
+		// checking if another pet of the owner already has the name, the form bound it to
+		// the edited pet, which is listed by the owner too
+		if (StringUtils.hasText(petName) && owner.getOtherPet(petName, pet.getId()) != null) {
+			result.rejectValue("name", "duplicate", "already exists");
 		}
+		// the owner indexes its pets by name
+		owner.renamePet(pet, petName);
 
 		LocalDate currentDate = LocalDate.now();
 		if (pet.getBirthDate() != null && pet.getBirthDate().isAfter(currentDate)) {
@@ -152,21 +154,24 @@ class PetController {
 			return VIEWS_PETS_CREATE_OR_UPDATE_FORM;
 		}
 
-		updatePetDetails(owner, pet);
-		redirectAttributes.addFlashAttribute("message", "Pet details has been edited");
+		if (updatePetDetails(owner, pet)) {
+			redirectAttributes.addFlashAttribute("message", "Pet details has been edited");
+		}
+		else {
+			redirectAttributes.addFlashAttribute("error", "Pet not found with id: " + pet.getId());
+		}
 		return "redirect:/owners/{ownerId}";
 	}
 
 	@PostMapping("/pets/{petId}/delete")
 	public String processDeletePet(@PathVariable("ownerId") int ownerId, @PathVariable("petId") int petId,
 			RedirectAttributes redirectAttributes) {
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
+		Optional<Owner> optionalOwner = this.ownerLoader.findById(ownerId);
 		Owner owner = optionalOwner
 			.orElseThrow(() -> new IllegalArgumentException("Owner not found with id: " + ownerId));
-		Pet pet = owner.getPet(petId);
-		if (pet != null) {
-			owner.removePet(pet);
-			this.owners.save(owner);
+		// the ownership check and the deletes run in SQL, saving the owner instead would
+		// load the visits of the pet for orphan removal and merge the whole aggregate
+		if (this.owners.deletePet(owner, petId)) {
 			redirectAttributes.addFlashAttribute("message", "Pet has been deleted");
 		}
 		else {
@@ -176,24 +181,17 @@ class PetController {
 	}
 
 	/**
-	 * Updates the pet details if it exists or adds a new pet to the owner.
+	 * Updates the details of an existing pet of the owner, with a single UPDATE of the
+	 * edited columns.
 	 * @param owner The owner of the pet
 	 * @param pet The pet with updated details
+	 * @return {@code true} if the pet was updated, {@code false} if it no longer belongs
+	 * to the owner
 	 */
-	private void updatePetDetails(Owner owner, Pet pet) {
+	private boolean updatePetDetails(Owner owner, Pet pet) {
 		Integer id = pet.getId();
 		Assert.state(id != null, "'pet.getId()' must not be null");
-		Pet existingPet = owner.getPet(id);
-		if (existingPet != null) {
-			// Update existing pet's properties
-			existingPet.setName(pet.getName());
-			existingPet.setBirthDate(pet.getBirthDate());
-			existingPet.setType(pet.getType());
-		}
-		else {
-			owner.addPet(pet);
-		}
-		this.owners.save(owner);
+		return this.owners.updatePetDetails(owner, pet);
 	}
 
 }
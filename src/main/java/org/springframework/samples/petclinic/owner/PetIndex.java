@@ -0,0 +1,144 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Lookup structures over the pets of an {@link Owner}, so that finding a pet by id or by
+ * name does not scan the whole list. Pets are looked up several times per request, and
+ * breeder and shelter accounts carry hundreds of them.
+ * <p>
+ * An index is a snapshot of the pets of its owner, built on the first lookup and dropped
+ * by the owner whenever its pets are added, removed, replaced or renamed. Pets that were
+ * new when indexed are only indexed by id once they have been saved.
+ * </p>
+ * <p>
+ * Like the owner itself, an index is not thread-safe.
+ * </p>
+ *
+ * @author Spring PetClinic contributors
+ */
+final class PetIndex {
+
+	private final List<Pet> pets;
+
+	private final Map<Integer, Pet> byId = new HashMap<>();
+
+	/**
+	 * Pets that were new when indexed, moved to {@link #byId} once they have an id.
+	 */
+	private final List<Pet> unsaved = new ArrayList<>();
+
+	/**
+	 * Pets by case-folded name, in list order; {@code null} until the first lookup by
+	 * name.
+	 */
+	private Map<String, List<Pet>> byName;
+
+	PetIndex(List<Pet> pets) {
+		this.pets = List.copyOf(pets);
+		for (Pet pet : pets) {
+			if (pet.isNew()) {
+				this.unsaved.add(pet);
+			}
+			else {
+				this.byId.putIfAbsent(pet.getId(), pet);
+			}
+		}
+	}
+
+	/**
+	 * Find a saved pet by id.
+	 * @param id the id of the pet
+	 * @return the pet, or {@code null} if no saved pet has that id
+	 */
+	Pet get(Integer id) {
+		Pet pet = this.byId.get(id);
+		if (pet == null && !this.unsaved.isEmpty()) {
+			// pick up the pets saved since they were indexed
+			for (Iterator<Pet> iterator = this.unsaved.iterator(); iterator.hasNext();) {
+				Pet candidate = iterator.next();
+				if (!candidate.isNew()) {
+					this.byId.putIfAbsent(candidate.getId(), candidate);
+					iterator.remove();
+				}
+			}
+			pet = this.byId.get(id);
+		}
+		return pet;
+	}
+
+	/**
+	 * Find the first pet with the given name, ignoring case.
+	 * @param name the name of the pet
+	 * @param ignoreNew whether to skip pets that are not saved yet
+	 * @return the pet, or {@code null} if none matches
+	 */
+	Pet get(String name, boolean ignoreNew) {
+		return get(name, pet -> !ignoreNew || !pet.isNew());
+	}
+
+	/**
+	 * Find the first pet with the given name, ignoring case, that the given filter
+	 * accepts.
+	 * @param name the name of the pet
+	 * @param filter the pets to consider
+	 * @return the pet, or {@code null} if none matches
+	 */
+	Pet get(String name, Predicate<Pet> filter) {
+		if (name == null) {
+			return null;
+		}
+		if (this.byName == null) {
+			this.byName = new HashMap<>();
+			for (Pet pet : this.pets) {
+				indexName(pet);
+			}
+		}
+		List<Pet> candidates = this.byName.getOrDefault(fold(name), List.of());
+		for (Pet pet : candidates) {
+			if (filter.test(pet)) {
+				return pet;
+			}
+		}
+		return null;
+	}
+
+	private void indexName(Pet pet) {
+		if (pet.getName() != null) {
+			this.byName.computeIfAbsent(fold(pet.getName()), key -> new ArrayList<>(1)).add(pet);
+		}
+	}
+
+	/**
+	 * Fold a name so that two names have the same key exactly when
+	 * {@link String#equalsIgnoreCase} considers them equal.
+	 */
+	static String fold(String name) {
+		StringBuilder folded = new StringBuilder(name.length());
+		for (int i = 0; i < name.length(); i++) {
+			folded.append(Character.toLowerCase(Character.toUpperCase(name.charAt(i))));
+		}
+		return folded.toString();
+	}
+
+}
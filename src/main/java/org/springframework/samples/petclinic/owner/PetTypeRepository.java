@@ -18,8 +18,10 @@ package org.springframework.samples.petclinic.owner;
 
 import java.util.List;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository class for <code>PetType</code> domain objects.
@@ -29,11 +31,18 @@ import org.springframework.data.jpa.repository.Query;
 
 public interface PetTypeRepository extends JpaRepository<PetType, Integer> {
 
+	/**
+	 * Name of the cache holding the pet types, see {@link #findPetTypes()}.
+	 */
+	String PET_TYPES_CACHE = "petTypes";
+
 	/**
 	 * Retrieve all {@link PetType}s from the data store.
 	 * @return a Collection of {@link PetType}s.
 	 */
 	@Query("SELECT ptype FROM PetType ptype ORDER BY ptype.name")
+	@Transactional(readOnly = true)
+	@Cacheable(PET_TYPES_CACHE)
 	List<PetType> findPetTypes();
 
 }
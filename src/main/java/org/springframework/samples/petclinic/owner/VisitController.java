@@ -18,14 +18,17 @@ package org.springframework.samples.petclinic.owner;
 import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.InitBinder;
-import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import jakarta.validation.Valid;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
@@ -41,10 +44,16 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 @Controller
 class VisitController {
 
-	private final OwnerRepository owners;
+	private final OwnerLoader ownerLoader;
 
-	public VisitController(OwnerRepository owners) {
-		this.owners = owners;
+	private final VisitRepository visits;
+
+	private final OwnerViewCache ownerViews;
+
+	public VisitController(OwnerLoader ownerLoader, VisitRepository visits, OwnerViewCache ownerViews) {
+		this.ownerLoader = ownerLoader;
+		this.visits = visits;
+		this.ownerViews = ownerViews;
 	}
 
 	@InitBinder
@@ -53,52 +62,82 @@ class VisitController {
 	}
 
 	/**
-	 * Called before each and every @RequestMapping annotated method. 2 goals: - Make sure
-	 * we always have fresh data - Since we do not use the session scope, make sure that
-	 * Pet object always has an id (Even though id is not part of the form fields)
-	 * @param petId
-	 * @return Pet
+	 * Put the owner and the pet, with its previous visits, in the model for the visit
+	 * form. Only needed to render the form, booking a visit does not load them.
+	 * @param ownerId the id of the owner
+	 * @param petId the id of the pet
+	 * @param model the model to fill in
 	 */
-	@ModelAttribute("visit")
-	public Visit loadPetWithVisit(@PathVariable("ownerId") int ownerId, @PathVariable("petId") int petId,
-			Map<String, Object> model) {
-		Optional<Owner> optionalOwner = owners.findById(ownerId);
+	private void loadPetWithVisits(int ownerId, int petId, Map<String, Object> model) {
+		Optional<Owner> optionalOwner = this.ownerLoader.findWithPetsAndVisitsById(ownerId);
 		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
 				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
 
 		Pet pet = owner.getPet(petId);
 		if (pet == null) {
-			throw new IllegalArgumentException(
-					"Pet with id " + petId + " not found for owner with id " + ownerId + ".");
+			throw petNotFound(ownerId, petId);
 		}
 		model.put("pet", pet);
 		model.put("owner", owner);
-
-		Visit visit = new Visit();
-		pet.addVisit(visit);
-		return visit;
 	}
 
-	// Spring MVC calls method loadPetWithVisit(...) before initNewVisitForm is
-	// called
 	@GetMapping("/owners/{ownerId}/pets/{petId}/visits/new")
-	public String initNewVisitForm() {
+	@Transactional(readOnly = true)
+	public String initNewVisitForm(@PathVariable("ownerId") int ownerId, @PathVariable("petId") int petId,
+			Map<String, Object> model) {
+		loadPetWithVisits(ownerId, petId, model);
+		model.put("visit", new Visit());
 		return "pets/createOrUpdateVisitForm";
 	}
 
-	// Spring MVC calls method loadPetWithVisit(...) before processNewVisitForm is
-	// called
+	/**
+	 * Page through the visit history of a pet, newest first. The owner details page only
+	 * shows the most recent visits of each pet, and links here for the older ones: pages
+	 * have the same size, so the second page starts right after them.
+	 */
+	@GetMapping("/owners/{ownerId}/pets/{petId}/visits")
+	@Transactional(readOnly = true)
+	public String showVisitHistory(@PathVariable("ownerId") int ownerId, @PathVariable("petId") int petId,
+			@RequestParam(defaultValue = "1") int page, Map<String, Object> model) {
+		Optional<Owner> optionalOwner = this.ownerLoader.findWithPetsById(ownerId);
+		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
+				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
+		Pet pet = owner.getPet(petId);
+		if (pet == null) {
+			throw petNotFound(ownerId, petId);
+		}
+
+		int currentPage = Math.max(page, 1);
+		Page<Visit> history = this.visits.findByPetIdOrderByDateDescIdDesc(petId,
+				PageRequest.of(currentPage - 1, OwnerDetails.RECENT_VISITS));
+		model.put("owner", owner);
+		model.put("pet", pet);
+		model.put("visits", history.getContent());
+		model.put("currentPage", currentPage);
+		model.put("totalPages", history.getTotalPages());
+		return "pets/visitHistory";
+	}
+
 	@PostMapping("/owners/{ownerId}/pets/{petId}/visits/new")
-	public String processNewVisitForm(@ModelAttribute Owner owner, @PathVariable int petId, @Valid Visit visit,
-			BindingResult result, RedirectAttributes redirectAttributes) {
+	public String processNewVisitForm(@PathVariable("ownerId") int ownerId, @PathVariable("petId") int petId,
+			@Valid Visit visit, BindingResult result, Map<String, Object> model,
+			RedirectAttributes redirectAttributes) {
 		if (result.hasErrors()) {
+			loadPetWithVisits(ownerId, petId, model);
 			return "pets/createOrUpdateVisitForm";
 		}
 
-		owner.addVisit(petId, visit);
-		this.owners.save(owner);
+		if (!this.visits.addVisit(ownerId, petId, visit)) {
+			throw petNotFound(ownerId, petId);
+		}
+		// the visit is inserted directly, without an OwnerSavedEvent
+		this.ownerViews.evict(ownerId);
 		redirectAttributes.addFlashAttribute("message", "Your visit has been booked");
 		return "redirect:/owners/{ownerId}";
 	}
 
+	private static IllegalArgumentException petNotFound(int ownerId, int petId) {
+		return new IllegalArgumentException("Pet with id " + petId + " not found for owner with id " + ownerId + ".");
+	}
+
 }
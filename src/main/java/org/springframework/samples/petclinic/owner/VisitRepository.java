@@ -16,9 +16,13 @@
 package org.springframework.samples.petclinic.owner;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
@@ -45,4 +49,81 @@ public interface VisitRepository extends JpaRepository<Visit, Integer> {
 	@Transactional(readOnly = true)
 	List<Visit> findByDateBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
 
+	/**
+	 * Retrieve the most recent {@link Visit}s of each of the given pets, in a single
+	 * query whatever the number of pets.
+	 * <p>
+	 * The visits of each pet are numbered from the newest with {@code ROW_NUMBER()}, and
+	 * the first {@code limit} of them are kept. The visits of the given pets are ranked in
+	 * one pass over the {@code (pet_id, visit_date)} index on {@code visits}, instead of
+	 * counting the later visits of each of them, and only the kept visits are read and
+	 * mapped.
+	 * </p>
+	 * @param petIds the ids of the pets
+	 * @param limit maximum number of visits per pet
+	 * @return the matching {@link Visit}s, newest first
+	 */
+	@Query("SELECT visit FROM Visit visit WHERE visit.id IN (SELECT ranked.id FROM (SELECT v.id AS id,"
+			+ " ROW_NUMBER() OVER (PARTITION BY v.pet.id ORDER BY v.date DESC, v.id DESC) AS recency"
+			+ " FROM Visit v WHERE v.pet.id IN :petIds) ranked WHERE ranked.recency <= :limit)"
+			+ " ORDER BY visit.date DESC, visit.id DESC")
+	@Transactional(readOnly = true)
+	List<Visit> findRecentByPetIdIn(@Param("petIds") Collection<Integer> petIds, @Param("limit") long limit);
+
+	/**
+	 * Retrieve a page of the visit history of a pet, newest first.
+	 * @param petId the id of the pet
+	 * @param pageable the page to read
+	 * @return a {@link Page} of the pet's {@link Visit}s
+	 */
+	@Transactional(readOnly = true)
+	Page<Visit> findByPetIdOrderByDateDescIdDesc(Integer petId, Pageable pageable);
+
+	/**
+	 * Book the given {@link Visit} for a pet, provided the pet belongs to the given owner.
+	 * <p>
+	 * This is the write path for new visits: it costs an existence check on the pet and
+	 * a single insert, instead of loading the owner with all its pets and visits and
+	 * merging the whole aggregate back.
+	 * </p>
+	 * @param ownerId the id of the owner the pet must belong to
+	 * @param petId the id of the pet the visit is for
+	 * @param visit the visit to book
+	 * @return {@code true} if the visit was booked, {@code false} if the owner has no pet
+	 * with that id
+	 */
+	@Transactional
+	default boolean addVisit(int ownerId, int petId, Visit visit) {
+		if (!existsPetOfOwner(ownerId, petId)) {
+			return false;
+		}
+		insertVisit(petId, visit.getDate(), visit.getDescription());
+		return true;
+	}
+
+	/**
+	 * Check whether the given owner has a pet with the given id.
+	 * @param ownerId the id of the owner
+	 * @param petId the id of the pet
+	 * @return {@code true} if the pet exists and belongs to the owner
+	 */
+	@Query("SELECT COUNT(pet) > 0 FROM Pet pet WHERE pet.id = :petId AND pet.owner.id = :ownerId")
+	@Transactional(readOnly = true)
+	boolean existsPetOfOwner(@Param("ownerId") int ownerId, @Param("petId") int petId);
+
+	/**
+	 * Insert a visit row for the given pet. The association from visits to pets is owned
+	 * by {@link Pet}, so the row is written with SQL rather than by persisting a
+	 * {@link Visit}.
+	 * @param petId the id of the pet
+	 * @param date the date of the visit
+	 * @param description the description of the visit
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO visits (pet_id, visit_date, description) VALUES (:petId, :date, :description)",
+			nativeQuery = true)
+	@Transactional
+	void insertVisit(@Param("petId") int petId, @Param("date") LocalDate date,
+			@Param("description") String description);
+
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Bounds of the cache regions, one per cache name, bound from
+ * {@code petclinic.cache.regions[<cache name>]}. Caches without a region fall back to
+ * {@code spring.cache.caffeine.spec}.
+ *
+ * @param regions the regions by cache name
+ * @author Spring PetClinic contributors
+ */
+@ConfigurationProperties("petclinic.cache")
+record CacheRegionProperties(Map<String, Region> regions) {
+
+	CacheRegionProperties {
+		regions = (regions != null) ? Map.copyOf(regions) : Map.of();
+	}
+
+	/**
+	 * Bounds of a single cache region.
+	 *
+	 * @param maximumSize maximum number of entries, unbounded if not set
+	 * @param expireAfterWrite time after which an entry is evicted once written, never if
+	 * not set
+	 */
+	record Region(Long maximumSize, Duration expireAfterWrite) {
+
+		/**
+		 * Build a cache with these bounds, recording statistics so that its hits and
+		 * misses are published as metrics.
+		 * @return the cache
+		 */
+		Cache<Object, Object> build() {
+			Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+			if (this.maximumSize != null) {
+				builder.maximumSize(this.maximumSize);
+			}
+			if (this.expireAfterWrite != null) {
+				builder.expireAfterWrite(this.expireAfterWrite);
+			}
+			return builder.build();
+		}
+
+	}
+
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+/**
+ * An entry of the specialty filter on the vet list: a specialty and the number of vets
+ * having it.
+ *
+ * @param name the name of the specialty, or {@code null} for the vets without any
+ * specialty
+ * @param vets the number of vets
+ * @author Spring PetClinic contributors
+ * @see VetRepository#findSpecialtyFacets(String)
+ */
+public record SpecialtyFacet(String name, long vets) {
+
+}
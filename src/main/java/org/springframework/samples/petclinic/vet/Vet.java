@@ -19,7 +19,6 @@ import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.springframework.samples.petclinic.model.NamedEntity;
 import org.springframework.samples.petclinic.model.Person;
@@ -49,22 +48,39 @@ public class Vet extends Person {
 			inverseJoinColumns = @JoinColumn(name = "specialty_id"))
 	private Set<Specialty> specialties;
 
+	/**
+	 * The specialties sorted by name, built on first use. Cleared whenever the set of
+	 * specialties is handed out for modification.
+	 */
+	private transient List<Specialty> sortedSpecialties;
+
 	protected Set<Specialty> getSpecialtiesInternal() {
 		if (this.specialties == null) {
 			this.specialties = new HashSet<>();
 		}
+		this.sortedSpecialties = null;
 		return this.specialties;
 	}
 
+	/**
+	 * Return the specialties of this vet, sorted by name. The list is unmodifiable and
+	 * shared between calls until a specialty is added, so that rendering or serializing
+	 * a vet does not sort its specialties every time.
+	 * @return the sorted specialties
+	 */
 	@XmlElement
 	public List<Specialty> getSpecialties() {
-		return getSpecialtiesInternal().stream()
-			.sorted(Comparator.comparing(NamedEntity::getName))
-			.collect(Collectors.toList());
+		List<Specialty> sorted = this.sortedSpecialties;
+		if (sorted == null) {
+			sorted = (this.specialties != null)
+					? this.specialties.stream().sorted(Comparator.comparing(NamedEntity::getName)).toList() : List.of();
+			this.sortedSpecialties = sorted;
+		}
+		return sorted;
 	}
 
 	public int getNrOfSpecialties() {
-		return getSpecialtiesInternal().size();
+		return (this.specialties != null) ? this.specialties.size() : 0;
 	}
 
 	public void addSpecialty(Specialty specialty) {
@@ -16,16 +16,12 @@
 package org.springframework.samples.petclinic.vet;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -42,59 +38,50 @@ class VetController {
 
 	private final VetRepository vetRepository;
 
-	public VetController(VetRepository vetRepository) {
+	private final VetDirectory vetDirectory;
+
+	public VetController(VetRepository vetRepository, VetDirectory vetDirectory) {
 		this.vetRepository = vetRepository;
+		this.vetDirectory = vetDirectory;
 	}
 
+	/**
+	 * Show the vets whose last name starts with the given name, ignoring case, filtered by
+	 * specialty. The specialty selected in the dropdown, which may be {@code none}, and
+	 * any number of {@code specialties} parameters are combined: with {@code match=all} a
+	 * vet must have all of them, by default any of them is enough.
+	 */
 	@GetMapping("/vets.html")
+	@Transactional(readOnly = true)
 	public String showVetList(@RequestParam(defaultValue = "1") int page,
-			@RequestParam(defaultValue = "") String lastName,
-			@RequestParam(required = false) String specialty, Model model) {
-
-		// Fetch vets filtered by last name (empty string matches all)
-		Page<Vet> lastNamePage = findPaginatedForVetsLastName(1, lastName, Integer.MAX_VALUE);
-		Collection<Vet> lastNameVets = lastNamePage.getContent();
+			@RequestParam(defaultValue = "") String lastName, @RequestParam(required = false) String specialty,
+			@RequestParam(required = false) List<String> specialties, @RequestParam(defaultValue = "any") String match,
+			Model model) {
 
-		// Extract unique specialty names for the filter dropdown
-		List<String> specialtyNames = lastNameVets.stream()
-			.flatMap(vet -> vet.getSpecialties().stream())
-			.map(Specialty::getName)
-			.distinct()
-			.sorted()
-			.collect(Collectors.toList());
-		model.addAttribute("specialties", specialtyNames);
+		// Count the vets per specialty for the filter dropdown, in the database
+		List<SpecialtyFacet> facets = this.vetRepository.findSpecialtyFacets(lastName);
+		model.addAttribute("specialties", facets.stream().filter(facet -> facet.name() != null).toList());
+		model.addAttribute("vetsWithoutSpecialty",
+				facets.stream().filter(facet -> facet.name() == null).mapToLong(SpecialtyFacet::vets).sum());
 
 		// Normalize selected specialty (null means "all")
 		String selected = (specialty != null && !specialty.isEmpty()) ? specialty : null;
+		List<String> requested = (specialties != null) ? specialties : List.of();
 		model.addAttribute("selectedSpecialty", selected);
+		model.addAttribute("selectedSpecialties", requested);
+		model.addAttribute("match", match);
 		model.addAttribute("lastName", lastName);
 
-		// Apply specialty filter on top of last-name results
-		List<Vet> filteredVets = filterVetsBySpecialty(lastNameVets, selected);
-		Page<Vet> paginated = paginateResults(filteredVets, page);
-
-		return addPaginationModel(page, paginated, model);
-	}
-
-	private List<Vet> filterVetsBySpecialty(Collection<Vet> vets, String specialty) {
-		if (specialty == null) {
-			return new ArrayList<>(vets);
-		}
-		if ("none".equalsIgnoreCase(specialty)) {
-			return vets.stream().filter(vet -> vet.getNrOfSpecialties() == 0).collect(Collectors.toList());
+		// Filter by last name and specialties, and page, in the database
+		List<String> wanted = new ArrayList<>(requested);
+		if (selected != null) {
+			wanted.add(selected);
 		}
-		return vets.stream()
-			.filter(vet -> vet.getSpecialties().stream().anyMatch(s -> s.getName().equalsIgnoreCase(specialty)))
-			.collect(Collectors.toList());
-	}
-
-	private Page<Vet> paginateResults(List<Vet> vets, int page) {
 		int pageSize = 5;
-		Pageable pageable = PageRequest.of(page - 1, pageSize);
-		int start = (int) pageable.getOffset();
-		int end = Math.min(start + pageSize, vets.size());
-		List<Vet> pageContent = (start < vets.size()) ? vets.subList(start, end) : Collections.emptyList();
-		return new PageImpl<>(pageContent, pageable, vets.size());
+		Page<Vet> paginated = this.vetRepository.findByLastNameAndSpecialties(lastName, wanted, isMatchAll(match),
+				PageRequest.of(page - 1, pageSize));
+
+		return addPaginationModel(page, paginated, model);
 	}
 
 	private String addPaginationModel(int page, Page<Vet> paginated, Model model) {
@@ -106,17 +93,23 @@ class VetController {
 		return "vets/vetList";
 	}
 
-	private Page<Vet> findPaginatedForVetsLastName(int page, String lastName, int pageSize) {
-		Pageable pageable = PageRequest.of(page - 1, pageSize);
-		return vetRepository.findByLastNameStartingWith(lastName, pageable);
+	private static boolean isMatchAll(String match) {
+		return "all".equalsIgnoreCase(match);
 	}
 
 	@GetMapping({ "/vets" })
-	public @ResponseBody Vets showResourcesVetList() {
+	@Transactional(readOnly = true)
+	public @ResponseBody Vets showResourcesVetList(@RequestParam(required = false) List<String> specialties,
+			@RequestParam(defaultValue = "any") String match) {
 		// Here we are returning an object of type 'Vets' rather than a collection of Vet
 		// objects so it is simpler for JSon/Object mapping
 		Vets vets = new Vets();
-		vets.getVetList().addAll(this.vetRepository.findAll());
+		if (specialties == null || specialties.isEmpty()) {
+			vets.getVetList().addAll(this.vetRepository.findAll());
+		}
+		else {
+			vets.getVetList().addAll(this.vetDirectory.find(specialties, isMatchAll(match)));
+		}
 		return vets;
 	}
 
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory directory of all {@link Vet}s, for filtering the unpaged vet resource list by
+ * specialty. The paged vet list is filtered in the database instead, see
+ * {@link VetSearchRepository}.
+ * <p>
+ * Each specialty is mapped to a bit position, and the specialties of each vet are kept as
+ * a {@link BitSet}. Matching a vet against the requested specialties is then a bitwise
+ * operation instead of a case-insensitive comparison with each of its specialties.
+ * Specialties with the same name, ignoring case, share a bit.
+ * </p>
+ * <p>
+ * The directory is built from {@link VetRepository#findAll()}, which is cached, and
+ * rebuilt whenever that returns a different collection, that is whenever the cached vets
+ * were evicted and read again.
+ * </p>
+ *
+ * @author Spring PetClinic contributors
+ */
+@Component
+class VetDirectory {
+
+	/**
+	 * Requested specialty that matches the vets without any specialty.
+	 */
+	static final String NONE = "none";
+
+	private final VetRepository vets;
+
+	private volatile Snapshot snapshot;
+
+	VetDirectory(VetRepository vets) {
+		this.vets = vets;
+	}
+
+	/**
+	 * Find the vets that have the requested specialties.
+	 * @param specialties names of the requested specialties, ignoring case, where
+	 * {@value #NONE} stands for having no specialty at all; no specialties match all vets
+	 * @param matchAll {@code true} if a vet must have all requested specialties,
+	 * {@code false} if any of them is enough
+	 * @return the matching vets, in the order of {@link VetRepository#findAll()}
+	 */
+	List<Vet> find(Collection<String> specialties, boolean matchAll) {
+		Snapshot current = snapshot();
+		Query query = current.query(specialties, matchAll);
+		List<Vet> found = new ArrayList<>();
+		for (int i = 0; i < current.vets.length; i++) {
+			if (query.matches(current.specialties[i])) {
+				found.add(current.vets[i]);
+			}
+		}
+		return found;
+	}
+
+	private Snapshot snapshot() {
+		Collection<Vet> vets = this.vets.findAll();
+		Snapshot current = this.snapshot;
+		if (current == null || current.source != vets) {
+			current = new Snapshot(vets);
+			this.snapshot = current;
+		}
+		return current;
+	}
+
+	private static String key(String name) {
+		return name.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * The vets read by one call to {@link VetRepository#findAll()}, with their
+	 * specialties.
+	 */
+	private static final class Snapshot {
+
+		private final Collection<Vet> source;
+
+		private final Map<String, Integer> bits = new HashMap<>();
+
+		private final Vet[] vets;
+
+		private final BitSet[] specialties;
+
+		Snapshot(Collection<Vet> source) {
+			this.source = source;
+			this.vets = source.toArray(new Vet[0]);
+			this.specialties = new BitSet[this.vets.length];
+			for (int i = 0; i < this.vets.length; i++) {
+				BitSet specialties = new BitSet();
+				for (Specialty specialty : this.vets[i].getSpecialties()) {
+					specialties.set(this.bits.computeIfAbsent(key(specialty.getName()), name -> this.bits.size()));
+				}
+				this.specialties[i] = specialties;
+			}
+		}
+
+		Query query(Collection<String> names, boolean matchAll) {
+			BitSet wanted = new BitSet();
+			boolean none = false;
+			boolean unknown = false;
+			for (String name : names) {
+				if (NONE.equalsIgnoreCase(name)) {
+					none = true;
+					continue;
+				}
+				Integer bit = this.bits.get(key(name));
+				if (bit != null) {
+					wanted.set(bit);
+				}
+				else {
+					unknown = true;
+				}
+			}
+			return new Query(wanted, none, unknown, matchAll || names.isEmpty());
+		}
+
+	}
+
+	/**
+	 * The requested specialties, as bits.
+	 *
+	 * @param wanted the bits of the requested specialties
+	 * @param none whether having no specialty was requested
+	 * @param unknown whether a specialty that no vet has was requested
+	 * @param matchAll whether all requested specialties are needed, rather than any
+	 */
+	private record Query(BitSet wanted, boolean none, boolean unknown, boolean matchAll) {
+
+		boolean matches(BitSet specialties) {
+			if (!this.matchAll) {
+				return (this.none && specialties.isEmpty()) || specialties.intersects(this.wanted);
+			}
+			if (this.unknown || (this.none && !specialties.isEmpty())) {
+				return false;
+			}
+			for (int bit = this.wanted.nextSetBit(0); bit >= 0; bit = this.wanted.nextSetBit(bit + 1)) {
+				if (!specialties.get(bit)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import java.lang.reflect.Method;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache key of a page of vets.
+ *
+ * @param page the number of the page, or {@code -1} if unpaged
+ * @param size the size of the page, or {@code -1} if unpaged
+ * @param sort the order of the vets
+ * @author Spring PetClinic contributors
+ */
+record VetPageKey(int page, int size, Sort sort) {
+
+	static VetPageKey of(Pageable pageable) {
+		return new VetPageKey(pageable.isPaged() ? pageable.getPageNumber() : -1,
+				pageable.isPaged() ? pageable.getPageSize() : -1, pageable.getSort());
+	}
+
+	/**
+	 * {@link KeyGenerator} for {@link VetRepository#findAll(Pageable)}.
+	 */
+	@Component(Generator.NAME)
+	static class Generator implements KeyGenerator {
+
+		static final String NAME = "vetPageKeyGenerator";
+
+		@Override
+		public Object generate(Object target, Method method, Object... params) {
+			return VetPageKey.of((Pageable) params[0]);
+		}
+
+	}
+
+}
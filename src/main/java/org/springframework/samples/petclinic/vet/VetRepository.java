@@ -19,10 +19,12 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Repository class for <code>Vet</code> domain objects All method names are compliant
@@ -35,24 +37,41 @@ import java.util.Collection;
  * @author Sam Brannen
  * @author Michael Isvy
  */
-public interface VetRepository extends Repository<Vet, Integer> {
+public interface VetRepository extends Repository<Vet, Integer>, VetSearchRepository {
+
+	/**
+	 * Name of the cache holding all vets, see {@link #findAll()}.
+	 */
+	String VETS_CACHE = "vets";
+
+	/**
+	 * Name of the cache holding pages of vets, see {@link #findAll(Pageable)}.
+	 */
+	String VET_PAGES_CACHE = "vetPages";
+
+	/**
+	 * Name of the cache holding the specialty counts of the vet filter, see
+	 * {@link #findSpecialtyFacets(String)}.
+	 */
+	String SPECIALTIES_CACHE = "specialties";
 
 	/**
 	 * Retrieve all <code>Vet</code>s from the data store.
 	 * @return a <code>Collection</code> of <code>Vet</code>s
 	 */
 	@Transactional(readOnly = true)
-	@Cacheable("vets")
+	@Cacheable(VETS_CACHE)
 	Collection<Vet> findAll() throws DataAccessException;
 
 	/**
-	 * Retrieve all <code>Vet</code>s from data store in Pages
+	 * Retrieve all <code>Vet</code>s from data store in Pages. Pages are cached by page
+	 * number, size and sort, see {@link VetPageKey}.
 	 * @param pageable
 	 * @return
 	 * @throws DataAccessException
 	 */
 	@Transactional(readOnly = true)
-	@Cacheable("vets")
+	@Cacheable(cacheNames = VET_PAGES_CACHE, keyGenerator = VetPageKey.Generator.NAME)
 	Page<Vet> findAll(Pageable pageable) throws DataAccessException;
 
 	/**
@@ -65,4 +84,21 @@ public interface VetRepository extends Repository<Vet, Integer> {
 	@Transactional(readOnly = true)
 	Page<Vet> findByLastNameStartingWith(String lastName, Pageable pageable);
 
+	/**
+	 * Count the vets whose last name <i>starts</i> with the given name, ignoring case, per
+	 * specialty, in a single aggregate query, without loading them. The last name is
+	 * matched like {@link VetSearchRepository#findByLastNameAndSpecialties} does.
+	 * @param lastName Value to search for (an empty string matches all vets)
+	 * @return a {@link SpecialtyFacet} per specialty that at least one matching vet has,
+	 * ordered by name, and one with a {@code null} name counting the matching vets without
+	 * any specialty, if there are some
+	 */
+	@Query("SELECT new org.springframework.samples.petclinic.vet.SpecialtyFacet(specialty.name, count(vet))"
+			+ " FROM Vet vet LEFT JOIN vet.specialties specialty"
+			+ " WHERE LOWER(vet.lastName) LIKE LOWER(CONCAT(?#{escape([0])}, '%')) ESCAPE ?#{escapeCharacter()}"
+			+ " GROUP BY specialty.name ORDER BY specialty.name")
+	@Transactional(readOnly = true)
+	@Cacheable(SPECIALTIES_CACHE)
+	List<SpecialtyFacet> findSpecialtyFacets(String lastName);
+
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import java.util.Collection;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Repository fragment for the vet list, filtered by last name and specialty. The query
+ * is assembled at runtime from the filters that were actually given, and both the
+ * filtering and the paging happen in the database, so reading a page does not load the
+ * whole roster.
+ *
+ * @author Spring PetClinic contributors
+ * @see VetController
+ */
+public interface VetSearchRepository {
+
+	/**
+	 * Retrieve a page of the vets whose last name <i>starts</i> with the given name,
+	 * ignoring case, and that have the requested specialties. The page is cut over vet ids first, then the
+	 * vets of that page are loaded together with their specialties. The total is only
+	 * counted when it does not follow from the page itself.
+	 * @param lastName Value to search for (an empty string matches all vets)
+	 * @param specialties names of the requested specialties, ignoring case, where
+	 * {@value VetDirectory#NONE} stands for having no specialty at all; no specialties
+	 * match all vets
+	 * @param matchAll {@code true} if a vet must have all requested specialties,
+	 * {@code false} if any of them is enough
+	 * @param pageable the pagination information
+	 * @return a {@link Page} of matching {@link Vet}s ordered by id (or an empty Page if
+	 * none found)
+	 */
+	Page<Vet> findByLastNameAndSpecialties(String lastName, Collection<String> specialties, boolean matchAll,
+			Pageable pageable);
+
+}
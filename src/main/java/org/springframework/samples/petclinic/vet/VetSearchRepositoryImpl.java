@@ -0,0 +1,181 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+/**
+ * Criteria API implementation of {@link VetSearchRepository}. Only the predicates for the
+ * filters that were given are added to the query. The last name is matched ignoring case,
+ * with the same {@code LOWER(...) LIKE LOWER(...)} predicate as
+ * {@link VetRepository#findSpecialtyFacets(String)}, so the list always agrees with the
+ * specialty counts shown next to it. A requested specialty becomes a
+ * correlated subquery on the specialties of the vet, compared ignoring case like the
+ * {@link VetDirectory} does, and {@value VetDirectory#NONE} becomes an emptiness check.
+ *
+ * @author Spring PetClinic contributors
+ */
+@Transactional(readOnly = true)
+class VetSearchRepositoryImpl implements VetSearchRepository {
+
+	private static final char LIKE_ESCAPE = '\\';
+
+	private final EntityManager entityManager;
+
+	VetSearchRepositoryImpl(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	public Page<Vet> findByLastNameAndSpecialties(String lastName, Collection<String> specialties, boolean matchAll,
+			Pageable pageable) {
+		CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+		CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+		Root<Vet> vet = query.from(Vet.class);
+		query.select(vet.get("id"))
+			.where(searchPredicates(cb, query, vet, lastName, specialties, matchAll))
+			.orderBy(cb.asc(vet.get("id")));
+
+		TypedQuery<Integer> typedQuery = this.entityManager.createQuery(query);
+		if (pageable.isPaged()) {
+			typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+		}
+		List<Integer> ids = typedQuery.getResultList();
+		return PageableExecutionUtils.getPage(findAllWithSpecialties(ids), pageable,
+				() -> count(lastName, specialties, matchAll));
+	}
+
+	/**
+	 * Load the vets with the given ids and their specialties, ordered by id like the ids
+	 * were read.
+	 */
+	private List<Vet> findAllWithSpecialties(List<Integer> ids) {
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		return this.entityManager
+			.createQuery("SELECT DISTINCT vet FROM Vet vet LEFT JOIN FETCH vet.specialties WHERE vet.id IN :ids"
+					+ " ORDER BY vet.id", Vet.class)
+			.setParameter("ids", ids)
+			.getResultList();
+	}
+
+	private long count(String lastName, Collection<String> specialties, boolean matchAll) {
+		CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		Root<Vet> vet = query.from(Vet.class);
+		query.select(cb.count(vet)).where(searchPredicates(cb, query, vet, lastName, specialties, matchAll));
+		return this.entityManager.createQuery(query).getSingleResult();
+	}
+
+	/**
+	 * Build the predicates for the filters that were given, leaving out the others.
+	 */
+	private static Predicate[] searchPredicates(CriteriaBuilder cb, AbstractQuery<?> query, Root<Vet> vet,
+			String lastName, Collection<String> specialties, boolean matchAll) {
+		List<Predicate> predicates = new ArrayList<>(3);
+		if (StringUtils.hasLength(lastName)) {
+			Expression<String> prefix = cb.literal(escapeLike(lastName) + "%");
+			predicates.add(cb.like(cb.lower(vet.<String>get("lastName")), cb.lower(prefix), LIKE_ESCAPE));
+		}
+		if (specialties.isEmpty()) {
+			return predicates.toArray(Predicate[]::new);
+		}
+		boolean none = false;
+		Set<String> names = new HashSet<>();
+		for (String name : specialties) {
+			if (VetDirectory.NONE.equalsIgnoreCase(name)) {
+				none = true;
+			}
+			else {
+				names.add(name.toLowerCase(Locale.ROOT));
+			}
+		}
+		Predicate withoutSpecialty = cb.isEmpty(vet.<Set<Specialty>>get("specialties"));
+		if (matchAll) {
+			if (none) {
+				predicates.add(withoutSpecialty);
+			}
+			if (!names.isEmpty()) {
+				// a specialty no vet has can never be counted, so it matches nobody
+				Subquery<Long> matched = query.subquery(Long.class);
+				Expression<String> name = specialtyName(cb, matched, vet);
+				matched.select(cb.countDistinct(name)).where(name.in(names));
+				predicates.add(cb.equal(matched, (long) names.size()));
+			}
+		}
+		else {
+			List<Predicate> any = new ArrayList<>(2);
+			if (none) {
+				any.add(withoutSpecialty);
+			}
+			if (!names.isEmpty()) {
+				Subquery<Integer> matched = query.subquery(Integer.class);
+				Expression<String> name = specialtyName(cb, matched, vet);
+				matched.select(cb.literal(1)).where(name.in(names));
+				any.add(cb.exists(matched));
+			}
+			predicates.add(cb.or(any.toArray(Predicate[]::new)));
+		}
+		return predicates.toArray(Predicate[]::new);
+	}
+
+	/**
+	 * The lower-cased name of a specialty of the given vet, joined in the subquery.
+	 */
+	private static Expression<String> specialtyName(CriteriaBuilder cb, Subquery<?> subquery, Root<Vet> vet) {
+		Join<Vet, Specialty> specialty = subquery.correlate(vet).join("specialties");
+		return cb.lower(specialty.<String>get("name"));
+	}
+
+	/**
+	 * Escape the LIKE wildcards the given user input contains, so that they are matched
+	 * literally.
+	 */
+	private static String escapeLike(String value) {
+		StringBuilder escaped = new StringBuilder(value.length());
+		for (char c : value.toCharArray()) {
+			if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+				escaped.append(LIKE_ESCAPE);
+			}
+			escaped.append(c);
+		}
+		return escaped.toString();
+	}
+
+}
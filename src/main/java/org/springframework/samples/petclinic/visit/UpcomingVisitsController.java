@@ -21,6 +21,7 @@ import java.util.List;
 import org.springframework.samples.petclinic.owner.Visit;
 import org.springframework.samples.petclinic.owner.VisitRepository;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -40,6 +41,7 @@ class UpcomingVisitsController {
 	}
 
 	@GetMapping("/visits/upcoming")
+	@Transactional(readOnly = true)
 	public String showUpcomingVisits(@RequestParam(defaultValue = "7") int days, Model model) {
 		LocalDate today = LocalDate.now();
 		LocalDate end = today.plusDays(days);
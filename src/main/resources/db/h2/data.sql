@@ -22,22 +22,22 @@ INSERT INTO types VALUES (default, 'snake');
 INSERT INTO types VALUES (default, 'bird');
 INSERT INTO types VALUES (default, 'hamster');
 
-INSERT INTO owners VALUES (default, 'George', 'Franklin', '110 W. Liberty St.', 'Madison', '6085551023');
-INSERT INTO owners VALUES (default, 'Betty', 'Davis', '638 Cardinal Ave.', 'Sun Prairie', '6085551749');
-INSERT INTO owners VALUES (default, 'Eduardo', 'Rodriquez', '2693 Commerce St.', 'McFarland', '6085558763');
-INSERT INTO owners VALUES (default, 'Harold', 'Davis', '563 Friendly St.', 'Windsor', '6085553198');
-INSERT INTO owners VALUES (default, 'Peter', 'McTavish', '2387 S. Fair Way', 'Madison', '6085552765');
-INSERT INTO owners VALUES (default, 'Jean', 'Coleman', '105 N. Lake St.', 'Monona', '6085552654');
-INSERT INTO owners VALUES (default, 'Jeff', 'Black', '1450 Oak Blvd.', 'Monona', '6085555387');
-INSERT INTO owners VALUES (default, 'Maria', 'Escobito', '345 Maple St.', 'Madison', '6085557683');
-INSERT INTO owners VALUES (default, 'David', 'Schroeder', '2749 Blackhawk Trail', 'Madison', '6085559435');
-INSERT INTO owners VALUES (default, 'Carlos', 'Estaban', '2335 Independence La.', 'Waunakee', '6085555487');
-INSERT INTO owners VALUES (default, 'Alice', 'Davis', '100 Elm St.', 'Madison', '6085551101');
-INSERT INTO owners VALUES (default, 'Charlie', 'Davis', '101 Elm St.', 'Madison', '6085551102');
-INSERT INTO owners VALUES (default, 'Diana', 'Davis', '102 Elm St.', 'Madison', '6085551103');
-INSERT INTO owners VALUES (default, 'Edward', 'Davis', '103 Elm St.', 'Madison', '6085551104');
-INSERT INTO owners VALUES (default, 'Fiona', 'Davis', '104 Elm St.', 'Madison', '6085551105');
-INSERT INTO owners VALUES (default, 'Gregory', 'Davis', '105 Elm St.', 'Madison', '6085551106');
+INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES ('George', 'Franklin', '110 W. Liberty St.', 'Madison', '6085551023');
+INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES ('Betty', 'Davis', '638 Cardinal Ave.', 'Sun Prairie', '6085551749');
+INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES ('Eduardo', 'Rodriquez', '2693 Commerce St.', 'McFarland', '6085558763');
+INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES ('Harold', 'Davis', '563 Friendly St.', 'Windsor', '6085553198');
+INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES ('Peter', 'McTavish', '2387 S. Fair Way', 'Madison', '6085552765');
+INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES ('Jean', 'Coleman', '105 N. Lake St.', 'Monona', '6085552654');
+INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES ('Jeff', 'Black', '1450 Oak Blvd.', 'Monona', '6085555387');
+INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES ('Maria', 'Escobito', '345 Maple St.', 'Madison', '6085557683');
+INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES ('David', 'Schroeder', '2749 Blackhawk Trail', 'Madison', '6085559435');
+INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES ('Carlos', 'Estaban', '2335 Independence La.', 'Waunakee', '6085555487');
+INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES ('Alice', 'Davis', '100 Elm St.', 'Madison', '6085551101');
+INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES ('Charlie', 'Davis', '101 Elm St.', 'Madison', '6085551102');
+INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES ('Diana', 'Davis', '102 Elm St.', 'Madison', '6085551103');
+INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES ('Edward', 'Davis', '103 Elm St.', 'Madison', '6085551104');
+INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES ('Fiona', 'Davis', '104 Elm St.', 'Madison', '6085551105');
+INSERT INTO owners (first_name, last_name, address, city, telephone) VALUES ('Gregory', 'Davis', '105 Elm St.', 'Madison', '6085551106');
 
 INSERT INTO pets VALUES (default, 'Leo', '2010-09-07', 1, 1);
 INSERT INTO pets VALUES (default, 'Basil', '2012-08-06', 6, 2);
@@ -39,9 +39,17 @@ CREATE TABLE owners (
   last_name  VARCHAR_IGNORECASE(30),
   address    VARCHAR(255),
   city       VARCHAR(80),
-  telephone  VARCHAR(20)
+  telephone  VARCHAR(20),
+  last_name_search VARCHAR(30),
+  city_search      VARCHAR(80),
+  telephone_search VARCHAR(20),
+  identity_key     VARCHAR(90)
 );
 CREATE INDEX owners_last_name ON owners (last_name);
+CREATE INDEX owners_last_name_search ON owners (last_name_search, id);
+CREATE INDEX owners_city_search ON owners (city_search);
+CREATE INDEX owners_telephone_search ON owners (telephone_search);
+CREATE UNIQUE INDEX owners_identity_key ON owners (identity_key);
 
 CREATE TABLE pets (
   id         INTEGER IDENTITY PRIMARY KEY,
@@ -61,4 +69,4 @@ CREATE TABLE visits (
   description VARCHAR(255)
 );
 ALTER TABLE visits ADD CONSTRAINT fk_visits_pets FOREIGN KEY (pet_id) REFERENCES pets (id);
-CREATE INDEX visits_pet_id ON visits (pet_id);
+CREATE INDEX visits_pet_id_visit_date ON visits (pet_id, visit_date);
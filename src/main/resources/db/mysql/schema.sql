@@ -35,6 +35,68 @@ CREATE TABLE IF NOT EXISTS owners (
   INDEX(last_name)
 ) engine=InnoDB;
 
+-- Columns added after the table was first released must also reach existing databases.
+-- MySQL has no ADD COLUMN IF NOT EXISTS, so each change only runs when the column, or an
+-- index leading with it, is missing.
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE owners ADD COLUMN last_name_search VARCHAR(30)', 'DO 0')
+  FROM information_schema.columns
+  WHERE table_schema = DATABASE() AND table_name = 'owners' AND column_name = 'last_name_search');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE owners ADD COLUMN city_search VARCHAR(80)', 'DO 0')
+  FROM information_schema.columns
+  WHERE table_schema = DATABASE() AND table_name = 'owners' AND column_name = 'city_search');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE owners ADD COLUMN telephone_search VARCHAR(20)', 'DO 0')
+  FROM information_schema.columns
+  WHERE table_schema = DATABASE() AND table_name = 'owners' AND column_name = 'telephone_search');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE owners ADD COLUMN identity_key VARCHAR(90)', 'DO 0')
+  FROM information_schema.columns
+  WHERE table_schema = DATABASE() AND table_name = 'owners' AND column_name = 'identity_key');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+-- the owner search is ordered and paged on (last_name_search, id); InnoDB appends the
+-- primary key to an older index on last_name_search alone, so that one serves as well
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX owners_last_name_search ON owners (last_name_search, id)', 'DO 0')
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE() AND table_name = 'owners' AND column_name = 'last_name_search' AND seq_in_index = 1);
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX owners_city_search ON owners (city_search)', 'DO 0')
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE() AND table_name = 'owners' AND column_name = 'city_search' AND seq_in_index = 1);
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX owners_telephone_search ON owners (telephone_search)', 'DO 0')
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE() AND table_name = 'owners' AND column_name = 'telephone_search' AND seq_in_index = 1);
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+-- created while the column is still empty, OwnerSearchColumnsBackfill fills it at startup leaving duplicate owners out
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE UNIQUE INDEX owners_identity_key ON owners (identity_key)', 'DO 0')
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE() AND table_name = 'owners' AND index_name = 'owners_identity_key');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
 CREATE TABLE IF NOT EXISTS pets (
   id INT(4) UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
   name VARCHAR(30),
@@ -53,3 +115,11 @@ CREATE TABLE IF NOT EXISTS visits (
   description VARCHAR(255),
   FOREIGN KEY (pet_id) REFERENCES pets(id)
 ) engine=InnoDB;
+
+-- the recent visits of each pet are read newest first from (pet_id, visit_date)
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX visits_pet_id_visit_date ON visits (pet_id, visit_date)', 'DO 0')
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE() AND table_name = 'visits' AND column_name = 'visit_date' AND seq_in_index = 2);
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
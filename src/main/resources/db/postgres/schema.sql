@@ -32,6 +32,19 @@ CREATE TABLE IF NOT EXISTS owners (
   telephone  TEXT
 );
 CREATE INDEX ON owners (last_name);
+-- Added after the table was first released, so existing databases get them too
+ALTER TABLE owners ADD COLUMN IF NOT EXISTS last_name_search TEXT;
+ALTER TABLE owners ADD COLUMN IF NOT EXISTS city_search TEXT;
+ALTER TABLE owners ADD COLUMN IF NOT EXISTS telephone_search TEXT;
+ALTER TABLE owners ADD COLUMN IF NOT EXISTS identity_key TEXT;
+-- text_pattern_ops lets LIKE 'prefix%' use the index whatever the database collation
+CREATE INDEX IF NOT EXISTS owners_last_name_search ON owners (last_name_search text_pattern_ops);
+-- the owner search is ordered and paged on (last_name_search, id) in the database collation
+CREATE INDEX IF NOT EXISTS owners_last_name_search_id ON owners (last_name_search, id);
+CREATE INDEX IF NOT EXISTS owners_city_search ON owners (city_search text_pattern_ops);
+CREATE INDEX IF NOT EXISTS owners_telephone_search ON owners (telephone_search);
+-- created while the column is still empty, OwnerSearchColumnsBackfill fills it at startup leaving duplicate owners out
+CREATE UNIQUE INDEX IF NOT EXISTS owners_identity_key ON owners (identity_key);
 
 CREATE TABLE IF NOT EXISTS pets (
   id         INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -49,4 +62,6 @@ CREATE TABLE IF NOT EXISTS visits (
   visit_date  DATE,
   description TEXT
 );
-CREATE INDEX ON visits (pet_id);
+-- named as Postgres names it when created without a name, as earlier versions of this
+-- script did, so that databases which already have it are left alone
+CREATE INDEX IF NOT EXISTS visits_pet_id_visit_date_idx ON visits (pet_id, visit_date);
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Latencies of an operation measured by a {@link Benchmark}, reported as percentiles.
+ *
+ * @author Spring PetClinic contributors
+ */
+public final class Latencies {
+
+	private final long[] sortedNanos;
+
+	private Latencies(long[] nanos) {
+		this.sortedNanos = nanos.clone();
+		Arrays.sort(this.sortedNanos);
+	}
+
+	/**
+	 * Time each run of the given operation, after running it {@code warmup} times
+	 * untimed.
+	 * @param warmup the number of untimed runs
+	 * @param iterations the number of timed runs
+	 * @param operation the operation, given the index of the run
+	 * @return the latencies of the timed runs
+	 */
+	public static Latencies measure(int warmup, int iterations, IntConsumer operation) {
+		for (int i = 0; i < warmup; i++) {
+			operation.accept(i);
+		}
+		long[] nanos = new long[iterations];
+		for (int i = 0; i < iterations; i++) {
+			long start = System.nanoTime();
+			operation.accept(i);
+			nanos[i] = System.nanoTime() - start;
+		}
+		return new Latencies(nanos);
+	}
+
+	/**
+	 * Return the latency below which the given share of the runs completed.
+	 * @param percentile the share of the runs, between 0 and 1
+	 * @return the latency in microseconds
+	 */
+	public double micros(double percentile) {
+		int index = (int) Math.ceil(percentile * this.sortedNanos.length) - 1;
+		return this.sortedNanos[Math.max(index, 0)] / 1_000.0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("p50=%,.1f us  p95=%,.1f us  p99=%,.1f us  p99.9=%,.1f us", micros(0.50), micros(0.95),
+				micros(0.99), micros(0.999));
+	}
+
+}
@@ -25,12 +25,20 @@ import org.springframework.boot.restclient.RestTemplateBuilder;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.OwnerSummary;
+import org.springframework.samples.petclinic.vet.Vet;
 import org.springframework.samples.petclinic.vet.VetRepository;
 import org.springframework.web.client.RestTemplate;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
 public class PetClinicIntegrationTests {
 
@@ -40,6 +48,12 @@ public class PetClinicIntegrationTests {
 	@Autowired
 	private VetRepository vets;
 
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
 	@Autowired
 	private RestTemplateBuilder builder;
 
@@ -49,6 +63,32 @@ public class PetClinicIntegrationTests {
 		vets.findAll(); // served from cache
 	}
 
+	@Test
+	void testVetPageCache() {
+		Page<Vet> page = vets.findAll(PageRequest.of(0, 5));
+		// served from cache, keyed by page, size and sort
+		assertThat(vets.findAll(PageRequest.of(0, 5))).isSameAs(page);
+		assertThat(vets.findAll(PageRequest.of(1, 5))).isNotSameAs(page);
+	}
+
+	@Test
+	void testOwnerSearchCache() {
+		Pageable pageable = PageRequest.of(0, 5);
+		Page<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCity("Franklin", "", "", pageable);
+		// served from cache, the criteria are normalized
+		assertThat(owners.findSummariesByLastNameAndTelephoneAndCity("franklin", "", "", pageable)).isSameAs(result);
+		assertThat(meterRegistry.get("cache.gets")
+			.tag("cache", OwnerRepository.SEARCH_CACHE)
+			.tag("result", "hit")
+			.functionCounter()
+			.count()).isPositive();
+
+		// saving an owner shown in the result evicts it
+		owners.save(owners.findById(result.getContent().get(0).id()).orElseThrow());
+		assertThat(owners.findSummariesByLastNameAndTelephoneAndCity("Franklin", "", "", pageable))
+			.isNotSameAs(result);
+	}
+
 	@Test
 	void testOwnerDetails() {
 		RestTemplate template = builder.rootUri("http://localhost:" + port).build();
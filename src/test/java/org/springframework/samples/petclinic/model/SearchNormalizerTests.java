@@ -0,0 +1,44 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link SearchNormalizer}.
+ */
+class SearchNormalizerTests {
+
+	@Test
+	void shouldLowerCaseAndStripAccents() {
+		assertThat(SearchNormalizer.normalize("Ésteban Müller")).isEqualTo("esteban muller");
+	}
+
+	@Test
+	void shouldKeepOnlyTelephoneDigits() {
+		assertThat(SearchNormalizer.normalizeTelephone("608-555 1023")).isEqualTo("6085551023");
+	}
+
+	@Test
+	void shouldKeepNull() {
+		assertThat(SearchNormalizer.normalize(null)).isNull();
+		assertThat(SearchNormalizer.normalizeTelephone(null)).isNull();
+	}
+
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that each owner page loads exactly the part of the owner aggregate it renders,
+ * by counting the SQL statements issued per request.
+ * <p>
+ * Uses the default H2 database populated by {@code data.sql}: owner 6 (Jean Coleman) has
+ * pets 7 (Samantha) and 8 (Max), with three and two visits. Tests writing to it restore
+ * that data afterwards, as the database is shared with the other tests of the context.
+ * </p>
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class OwnerAggregateLoadingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setup() {
+		this.statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		this.statistics.clear();
+		this.cacheManager.getCache(OwnerRepository.VIEW_CACHE).clear();
+		this.cacheManager.getCache(OwnerRepository.SEARCH_CACHE).clear();
+		this.cacheManager.getCache(OwnerSearchRepository.COUNT_CACHE).clear();
+		this.cacheManager.getCache(PetTypeRepository.PET_TYPES_CACHE).clear();
+	}
+
+	@AfterEach
+	void restoreData() {
+		this.jdbcTemplate.update("UPDATE owners SET address = '105 N. Lake St.' WHERE id = 6");
+		this.jdbcTemplate.update("DELETE FROM visits WHERE pet_id = 8 AND description = 'checkup'");
+	}
+
+	@Test
+	void ownersListReadsSummariesOnly() throws Exception {
+		mockMvc.perform(get("/owners").param("lastName", "Davis"))
+			.andExpect(status().isOk())
+			.andExpect(content().string(containsString("Basil")));
+
+		// the page of owner ids, their total, then the listed columns of those owners
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void ownersListRepeatedSearchServesCountFromCache() throws Exception {
+		mockMvc.perform(get("/owners").param("lastName", "Davis")).andExpect(status().isOk());
+		this.cacheManager.getCache(OwnerRepository.SEARCH_CACHE).clear();
+		statistics.clear();
+
+		mockMvc.perform(get("/owners").param("lastName", "Davis"))
+			.andExpect(status().isOk())
+			.andExpect(content().string(containsString("Basil")));
+
+		// the page of owner ids and the listed columns, but no count
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void ownerFormLoadsOwnerOnly() throws Exception {
+		mockMvc.perform(get("/owners/6/edit")).andExpect(status().isOk());
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void ownerDetailsLoadPetsAndRecentVisits() throws Exception {
+		mockMvc.perform(get("/owners/6"))
+			.andExpect(status().isOk())
+			.andExpect(content().string(containsString("spayed")));
+
+		// the owner, then its pets, then their recent visits in one batch
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+	}
+
+	@Test
+	void ownerDetailsLoadOwnerOnce() throws Exception {
+		mockMvc.perform(get("/owners/6")).andExpect(status().isOk());
+
+		// the owner bound by the model attribute is completed, not read again
+		assertThat(statistics.getEntityStatistics(Owner.class.getName()).getLoadCount()).isEqualTo(1);
+	}
+
+	@Test
+	void ownerDetailsRevisitIsServedFromViewCache() throws Exception {
+		mockMvc.perform(get("/owners/6")).andExpect(status().isOk());
+		statistics.clear();
+
+		mockMvc.perform(get("/owners/6"))
+			.andExpect(status().isOk())
+			.andExpect(content().string(containsString("spayed")));
+
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+	}
+
+	@Test
+	void petFormLoadsOwnerWithPets() throws Exception {
+		mockMvc.perform(get("/owners/6/pets/new")).andExpect(status().isOk());
+
+		// pet types, then owner with pets
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void petFormRevisitServesPetTypesFromCache() throws Exception {
+		mockMvc.perform(get("/owners/6/pets/new")).andExpect(status().isOk());
+		statistics.clear();
+
+		mockMvc.perform(get("/owners/6/pets/new")).andExpect(status().isOk());
+
+		// owner with pets only
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void petEditFormLoadsOwnerOnce() throws Exception {
+		mockMvc.perform(get("/owners/6/pets/7/edit")).andExpect(status().isOk());
+
+		// pet types, then owner with pets, shared by the owner and pet model attributes
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(statistics.getEntityStatistics(Owner.class.getName()).getLoadCount()).isEqualTo(1);
+	}
+
+	@Test
+	void visitHistoryLoadsOnePageOfVisits() throws Exception {
+		mockMvc.perform(get("/owners/6/pets/8/visits"))
+			.andExpect(status().isOk())
+			.andExpect(content().string(containsString("neutered")));
+
+		// owner with pets, then the page of visits, which is the last one and needs no
+		// count
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void visitFormLoadsOwnerWithPetsAndVisits() throws Exception {
+		mockMvc.perform(get("/owners/6/pets/7/visits/new"))
+			.andExpect(status().isOk())
+			.andExpect(content().string(containsString("rabies shot")));
+
+		// owner with pets, then their visits
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void ownerEditUpdatesContactDetailsWithoutMerge() throws Exception {
+		mockMvc
+			.perform(post("/owners/6/edit").param("firstName", "Jean")
+				.param("lastName", "Coleman")
+				.param("address", "107 N. Lake St.")
+				.param("city", "Monona")
+				.param("telephone", "6085552654"))
+			.andExpect(status().is3xxRedirection());
+
+		// the owner bound to the form, then the update
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject("SELECT address FROM owners WHERE id = 6", String.class))
+			.isEqualTo("107 N. Lake St.");
+	}
+
+	@Test
+	void visitBookingInsertsVisitWithoutLoadingOwner() throws Exception {
+		mockMvc.perform(post("/owners/6/pets/8/visits/new").param("date", "2013-02-01").param("description", "checkup"))
+			.andExpect(status().is3xxRedirection());
+
+		// pet ownership check, then the insert
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void petDeletionDeletesVisitsWithoutLoadingThem() throws Exception {
+		jdbcTemplate.update("INSERT INTO pets (id, name, birth_date, type_id, owner_id) VALUES (100, 'Tiny', ?, 1, 10)",
+				LocalDate.of(2020, 1, 1));
+		jdbcTemplate.update("INSERT INTO visits (pet_id, visit_date, description) VALUES (100, ?, 'checkup')",
+				LocalDate.of(2021, 1, 1));
+		statistics.clear();
+
+		mockMvc.perform(post("/owners/10/pets/100/delete")).andExpect(status().is3xxRedirection());
+
+		// pet types and the owner with its pets for the form model, then the visits and the
+		// pet
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+		assertThat(statistics.getEntityStatistics(Visit.class.getName()).getLoadCount()).isZero();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pets WHERE id = 100", Integer.class)).isZero();
+	}
+
+	@Test
+	void petDeletionKeepsViewCachedOwnerFoundByTelephone() throws Exception {
+		jdbcTemplate.update("INSERT INTO pets (id, name, birth_date, type_id, owner_id) VALUES (101, 'Tiny', ?, 1, 10)",
+				LocalDate.of(2020, 1, 1));
+		// the details page caches the owner view, which the deletion then reads the owner from
+		mockMvc.perform(get("/owners/10")).andExpect(status().isOk());
+
+		mockMvc.perform(post("/owners/10/pets/101/delete")).andExpect(status().is3xxRedirection());
+
+		mockMvc.perform(get("/owners").param("telephone", "6085555487"))
+			.andExpect(status().is3xxRedirection())
+			.andExpect(redirectedUrl("/owners/10"));
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Integration tests for {@link OwnerCityIndex} and its use by the owner search.
+ * <p>
+ * Uses the default H2 database populated by {@code data.sql}: owners 6 and 7 live in
+ * Monona, owner 10 in Waunakee and owner 2 in Sun Prairie.
+ * </p>
+ */
+@DataJpaTest
+@Import({ OwnerSearchColumnsBackfill.class, OwnerCityIndex.class })
+class OwnerCityIndexTests {
+
+	@Autowired
+	private OwnerCityIndex index;
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Test
+	void shouldResolveCitySubstringIgnoringCase() {
+		assertThat(index.findOwnerIds("ONON")).contains(Set.of(6, 7));
+		assertThat(index.findOwnerIds("prairie")).contains(Set.of(2));
+	}
+
+	@Test
+	void shouldResolveQueriesShorterThanATrigram() {
+		assertThat(index.findOwnerIds("ee")).contains(Set.of(10));
+	}
+
+	@Test
+	void shouldReturnNoCandidatesForUnknownCity() {
+		assertThat(index.findOwnerIds("Springfield")).contains(Set.of());
+		assertThat(owners.findSummariesByLastNameAndTelephoneAndCity("", "", "Springfield", PageRequest.of(0, 5)))
+			.isEmpty();
+	}
+
+	@Test
+	void shouldSearchOwnersThroughIndexedCities() {
+		assertThat(owners.findSummariesByLastNameAndTelephoneAndCity("", "", "onon", PageRequest.of(0, 5)))
+			.extracting(OwnerSummary::lastName)
+			.containsExactly("Black", "Coleman");
+	}
+
+	@Test
+	void shouldMoveOwnerToNewCityWhenSaved() {
+		Owner owner = owners.findById(10).orElseThrow();
+		owner.setCity("Springfield");
+
+		index.onOwnerSaved(new OwnerSavedEvent(owner));
+
+		assertThat(index.findOwnerIds("springf")).contains(Set.of(10));
+		assertThat(index.findOwnerIds("waunakee")).isEqualTo(Optional.of(Set.of()));
+	}
+
+}
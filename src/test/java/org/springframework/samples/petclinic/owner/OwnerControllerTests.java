@@ -16,39 +16,50 @@
 
 package org.springframework.samples.petclinic.owner;
 
+import org.hamcrest.FeatureMatcher;
+import org.hamcrest.Matcher;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.samples.petclinic.model.SearchNormalizer;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.greaterThan;
-import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -63,6 +74,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * @author Wick Dynex
  */
 @WebMvcTest(OwnerController.class)
+@Import(OwnerLoader.class)
 @DisabledInNativeImage
 @DisabledInAotMode
 class OwnerControllerTests {
@@ -75,6 +87,15 @@ class OwnerControllerTests {
 	@MockitoBean
 	private OwnerRepository owners;
 
+	@MockitoBean
+	private OwnerNameTrie ownerNames;
+
+	@MockitoBean
+	private OwnerViewCache ownerViews;
+
+	@MockitoBean
+	private VisitRepository visits;
+
 	private Owner george() {
 		Owner george = new Owner();
 		george.setId(TEST_OWNER_ID);
@@ -101,13 +122,17 @@ class OwnerControllerTests {
 		given(this.owners.findByLastNameStartingWith(eq("Franklin"), any(Pageable.class)))
 			.willReturn(new PageImpl<>(List.of(george)));
 
-		given(this.owners.findByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""), any(Pageable.class)))
-			.willReturn(new PageImpl<>(List.of(george)));
+		given(this.owners.findSummariesByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""),
+				any(Pageable.class)))
+			.willReturn(summaries(new PageImpl<>(List.of(george))));
 
 		given(this.owners.findById(TEST_OWNER_ID)).willReturn(Optional.of(george));
+		given(this.owners.findWithPetsAndVisitsById(TEST_OWNER_ID)).willReturn(Optional.of(george));
+		given(this.owners.findPetsByOwnerId(TEST_OWNER_ID)).willReturn(george.getPets());
 		Visit visit = new Visit();
 		visit.setDate(LocalDate.now());
-		george.getPet("Max").getVisits().add(visit);
+		visit.setPet(george.getPet("Max"));
+		given(this.visits.findRecentByPetIdIn(List.of(1), OwnerDetails.RECENT_VISITS + 1)).willReturn(List.of(visit));
 
 	}
 
@@ -121,8 +146,6 @@ class OwnerControllerTests {
 
 	@Test
 	void testProcessCreationFormSuccess() throws Exception {
-		when(this.owners.findByFirstNameAndLastNameAndTelephone("Joe", "Bloggs", "1316761638"))
-			.thenReturn(Collections.emptyList());
 		mockMvc
 			.perform(post("/owners/new").param("firstName", "Joe")
 				.param("lastName", "Bloggs")
@@ -130,6 +153,9 @@ class OwnerControllerTests {
 				.param("city", "London")
 				.param("telephone", "1316761638"))
 			.andExpect(status().is3xxRedirection());
+
+		// the redirect to the details page is served from the new owner
+		verify(this.ownerViews).put(argThat(details -> "Bloggs".equals(details.owner().getLastName())), anyLong());
 	}
 
 	@Test
@@ -163,8 +189,9 @@ class OwnerControllerTests {
 		other.setTelephone("6085551749");
 
 		Page<Owner> tasks = new PageImpl<>(List.of(george, other));
-		when(this.owners.findByLastNameAndTelephoneAndCity(anyString(), anyString(), anyString(), any(Pageable.class)))
-			.thenReturn(tasks);
+		when(this.owners.findSummariesByLastNameAndTelephoneAndCity(anyString(), anyString(), anyString(),
+				any(Pageable.class)))
+			.thenReturn(summaries(tasks));
 		mockMvc.perform(get("/owners?page=1"))
 			.andExpect(status().isOk())
 			.andExpect(view().name("owners/ownersList"))
@@ -186,17 +213,19 @@ class OwnerControllerTests {
 		george2.setTelephone("6085551024");
 
 		Page<Owner> tasks = new PageImpl<>(List.of(george, george2));
-		when(this.owners.findByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""), any(Pageable.class)))
-			.thenReturn(tasks);
+		when(this.owners.findSummariesByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""),
+				any(Pageable.class)))
+			.thenReturn(summaries(tasks));
 		mockMvc.perform(get("/owners?page=1").param("lastName", "Franklin"))
 			.andExpect(status().isOk())
 			.andExpect(view().name("owners/ownersList"))
 			.andExpect(model().attribute("lastName", "Franklin"))
 			.andExpect(model().attribute("listOwners", hasSize(2)))
-			.andExpect(model().attribute("listOwners", everyItem(hasProperty("lastName", startsWith("Franklin")))));
+			.andExpect(model().attribute("listOwners", everyItem(lastName(startsWith("Franklin")))));
 
 		// Verify the repository was called with the correct filter
-		verify(this.owners).findByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""), any(Pageable.class));
+		verify(this.owners).findSummariesByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""),
+				any(Pageable.class));
 	}
 
 	@Test
@@ -212,9 +241,9 @@ class OwnerControllerTests {
 		// Simulate page 2 of filtered results (total 7 items across pages, page size 5,
 		// showing page 2 with 2 items)
 		Page<Owner> page2Results = new PageImpl<>(List.of(franklin3), PageRequest.of(1, 5), 7);
-		when(this.owners.findByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""),
+		when(this.owners.findSummariesByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""),
 				argThat(pageable -> pageable.getPageNumber() == 1)))
-			.thenReturn(page2Results);
+			.thenReturn(summaries(page2Results));
 
 		mockMvc.perform(get("/owners?page=2").param("lastName", "Franklin"))
 			.andExpect(status().isOk())
@@ -224,10 +253,10 @@ class OwnerControllerTests {
 			.andExpect(model().attribute("totalPages", 2))
 			.andExpect(model().attribute("totalItems", 7L))
 			.andExpect(model().attribute("listOwners", hasSize(1)))
-			.andExpect(model().attribute("listOwners", everyItem(hasProperty("lastName", is("Franklin")))));
+			.andExpect(model().attribute("listOwners", everyItem(lastName(is("Franklin")))));
 
 		// Verify the repository was called with "Franklin" filter even on page 2
-		verify(this.owners).findByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""),
+		verify(this.owners).findSummariesByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""),
 				argThat(pageable -> pageable.getPageNumber() == 1));
 	}
 
@@ -266,9 +295,9 @@ class OwnerControllerTests {
 
 		List<Owner> page1Content = List.of(george, f2, f3, f4, f5);
 		Page<Owner> page1 = new PageImpl<>(page1Content, PageRequest.of(0, 5), 7);
-		when(this.owners.findByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""),
+		when(this.owners.findSummariesByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""),
 				argThat(pageable -> pageable.getPageNumber() == 0)))
-			.thenReturn(page1);
+			.thenReturn(summaries(page1));
 
 		// Assert page 1 returns filtered results with correct pagination metadata
 		mockMvc.perform(get("/owners?page=1").param("lastName", "Franklin"))
@@ -279,7 +308,7 @@ class OwnerControllerTests {
 			.andExpect(model().attribute("totalPages", 2))
 			.andExpect(model().attribute("totalItems", 7L))
 			.andExpect(model().attribute("listOwners", hasSize(5)))
-			.andExpect(model().attribute("listOwners", everyItem(hasProperty("lastName", is("Franklin")))));
+			.andExpect(model().attribute("listOwners", everyItem(lastName(is("Franklin")))));
 
 		// Page 2: remaining 2 Franklins
 		Owner f6 = new Owner();
@@ -299,9 +328,9 @@ class OwnerControllerTests {
 
 		List<Owner> page2Content = List.of(f6, f7);
 		Page<Owner> page2 = new PageImpl<>(page2Content, PageRequest.of(1, 5), 7);
-		when(this.owners.findByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""),
+		when(this.owners.findSummariesByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""),
 				argThat(pageable -> pageable.getPageNumber() == 1)))
-			.thenReturn(page2);
+			.thenReturn(summaries(page2));
 
 		// Assert page 2 still uses the same filter and returns correct results
 		mockMvc.perform(get("/owners?page=2").param("lastName", "Franklin"))
@@ -312,7 +341,7 @@ class OwnerControllerTests {
 			.andExpect(model().attribute("totalPages", 2))
 			.andExpect(model().attribute("totalItems", 7L))
 			.andExpect(model().attribute("listOwners", hasSize(2)))
-			.andExpect(model().attribute("listOwners", everyItem(hasProperty("lastName", is("Franklin")))));
+			.andExpect(model().attribute("listOwners", everyItem(lastName(is("Franklin")))));
 	}
 
 	@Test
@@ -328,8 +357,8 @@ class OwnerControllerTests {
 		betty.setTelephone("6085551749");
 
 		Page<Owner> allOwners = new PageImpl<>(List.of(george, betty), PageRequest.of(0, 5), 2);
-		when(this.owners.findByLastNameAndTelephoneAndCity(eq(""), eq(""), eq(""), any(Pageable.class)))
-			.thenReturn(allOwners);
+		when(this.owners.findSummariesByLastNameAndTelephoneAndCity(eq(""), eq(""), eq(""), any(Pageable.class)))
+			.thenReturn(summaries(allOwners));
 
 		// With explicitly empty lastName param
 		mockMvc.perform(get("/owners?page=1").param("lastName", ""))
@@ -340,7 +369,7 @@ class OwnerControllerTests {
 			.andExpect(model().attribute("listOwners", hasSize(2)));
 
 		// Verify repository was called with empty strings
-		verify(this.owners).findByLastNameAndTelephoneAndCity(eq(""), eq(""), eq(""), any(Pageable.class));
+		verify(this.owners).findSummariesByLastNameAndTelephoneAndCity(eq(""), eq(""), eq(""), any(Pageable.class));
 	}
 
 	@Test
@@ -355,8 +384,8 @@ class OwnerControllerTests {
 		george2.setTelephone("6085551024");
 
 		Page<Owner> filteredPage = new PageImpl<>(List.of(george, george2), PageRequest.of(0, 5), 2);
-		when(this.owners.findByLastNameAndTelephoneAndCity(eq("Fr"), eq(""), eq(""), any(Pageable.class)))
-			.thenReturn(filteredPage);
+		when(this.owners.findSummariesByLastNameAndTelephoneAndCity(eq("Fr"), eq(""), eq(""), any(Pageable.class)))
+			.thenReturn(summaries(filteredPage));
 
 		mockMvc.perform(get("/owners?page=1").param("lastName", "Fr"))
 			.andExpect(status().isOk())
@@ -375,8 +404,9 @@ class OwnerControllerTests {
 	@Test
 	void testProcessFindFormByLastName() throws Exception {
 		Page<Owner> tasks = new PageImpl<>(List.of(george()));
-		when(this.owners.findByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""), any(Pageable.class)))
-			.thenReturn(tasks);
+		when(this.owners.findSummariesByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""),
+				any(Pageable.class)))
+			.thenReturn(summaries(tasks));
 		mockMvc.perform(get("/owners?page=1").param("lastName", "Franklin"))
 			.andExpect(status().is3xxRedirection())
 			.andExpect(view().name("redirect:/owners/" + TEST_OWNER_ID));
@@ -385,8 +415,9 @@ class OwnerControllerTests {
 	@Test
 	void testProcessFindFormNoOwnersFound() throws Exception {
 		Page<Owner> tasks = new PageImpl<>(List.of());
-		when(this.owners.findByLastNameAndTelephoneAndCity(eq("Unknown Surname"), eq(""), eq(""), any(Pageable.class)))
-			.thenReturn(tasks);
+		when(this.owners.findSummariesByLastNameAndTelephoneAndCity(eq("Unknown Surname"), eq(""), eq(""),
+				any(Pageable.class)))
+			.thenReturn(summaries(tasks));
 		mockMvc.perform(get("/owners?page=1").param("lastName", "Unknown Surname"))
 			.andExpect(status().isOk())
 			.andExpect(model().attributeHasFieldErrors("owner", "lastName"))
@@ -398,18 +429,19 @@ class OwnerControllerTests {
 	@Test
 	void testProcessFindFormByTelephone() throws Exception {
 		Page<Owner> tasks = new PageImpl<>(List.of(george()));
-		when(this.owners.findByLastNameAndTelephoneAndCity(eq(""), eq("6085551023"), eq(""), any(Pageable.class)))
-			.thenReturn(tasks);
+		when(this.owners.findSummariesByTelephone(eq("6085551023"), any(Pageable.class))).thenReturn(summaries(tasks));
 		mockMvc.perform(get("/owners?page=1").param("telephone", "6085551023"))
 			.andExpect(status().is3xxRedirection())
 			.andExpect(view().name("redirect:/owners/" + TEST_OWNER_ID));
+		verify(this.owners, never()).findSummariesByLastNameAndTelephoneAndCity(anyString(), anyString(), anyString(),
+				any(Pageable.class));
 	}
 
 	@Test
 	void testProcessFindFormByCity() throws Exception {
 		Page<Owner> tasks = new PageImpl<>(List.of(george(), new Owner()));
-		when(this.owners.findByLastNameAndTelephoneAndCity(eq(""), eq(""), eq("Madison"), any(Pageable.class)))
-			.thenReturn(tasks);
+		when(this.owners.findSummariesByLastNameAndTelephoneAndCity(eq(""), eq(""), eq("Madison"), any(Pageable.class)))
+			.thenReturn(summaries(tasks));
 		mockMvc.perform(get("/owners?page=1").param("city", "Madison"))
 			.andExpect(status().isOk())
 			.andExpect(view().name("owners/ownersList"));
@@ -418,9 +450,9 @@ class OwnerControllerTests {
 	@Test
 	void testProcessFindFormByMultipleCriteria() throws Exception {
 		Page<Owner> tasks = new PageImpl<>(List.of(george()));
-		when(this.owners.findByLastNameAndTelephoneAndCity(eq("Franklin"), eq("6085551023"), eq("Madison"),
+		when(this.owners.findSummariesByLastNameAndTelephoneAndCity(eq("Franklin"), eq("6085551023"), eq("Madison"),
 				any(Pageable.class)))
-			.thenReturn(tasks);
+			.thenReturn(summaries(tasks));
 		mockMvc
 			.perform(get("/owners?page=1").param("lastName", "Franklin")
 				.param("telephone", "6085551023")
@@ -450,8 +482,8 @@ class OwnerControllerTests {
 	@Test
 	void testProcessFindFormDefaultBehaviorBlankFields() throws Exception {
 		Page<Owner> tasks = new PageImpl<>(List.of(george(), new Owner()));
-		when(this.owners.findByLastNameAndTelephoneAndCity(eq(""), eq(""), eq(""), any(Pageable.class)))
-			.thenReturn(tasks);
+		when(this.owners.findSummariesByLastNameAndTelephoneAndCity(eq(""), eq(""), eq(""), any(Pageable.class)))
+			.thenReturn(summaries(tasks));
 		mockMvc.perform(get("/owners?page=1")).andExpect(status().isOk()).andExpect(view().name("owners/ownersList"));
 	}
 
@@ -478,6 +510,10 @@ class OwnerControllerTests {
 				.param("telephone", "1616291589"))
 			.andExpect(status().is3xxRedirection())
 			.andExpect(view().name("redirect:/owners/{ownerId}"));
+
+		verify(this.owners).updateContactDetails(argThat(owner -> owner.getId() == TEST_OWNER_ID
+				&& "Bloggs".equals(owner.getLastName()) && "1616291589".equals(owner.getTelephone())));
+		verify(this.owners, never()).save(any(Owner.class));
 	}
 
 	@Test
@@ -511,9 +547,22 @@ class OwnerControllerTests {
 			.andExpect(model().attribute("owner", hasProperty("city", is("Madison"))))
 			.andExpect(model().attribute("owner", hasProperty("telephone", is("6085551023"))))
 			.andExpect(model().attribute("owner", hasProperty("pets", not(empty()))))
-			.andExpect(model().attribute("owner",
-					hasProperty("pets", hasItem(hasProperty("visits", hasSize(greaterThan(0)))))))
+			.andExpect(model().attribute("recentVisits", hasEntry(is(1), hasSize(greaterThan(0)))))
+			.andExpect(model().attribute("petsWithOlderVisits", empty()))
+			.andExpect(view().name("owners/ownerDetails"));
+	}
+
+	@Test
+	void testShowOwnerServedFromView() throws Exception {
+		given(this.ownerViews.get(TEST_OWNER_ID)).willReturn(Optional.of(OwnerDetails.of(george(), List.of())));
+
+		mockMvc.perform(get("/owners/{ownerId}", TEST_OWNER_ID))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("owner", hasProperty("lastName", is("Franklin"))))
 			.andExpect(view().name("owners/ownerDetails"));
+
+		verify(this.owners, never()).findById(TEST_OWNER_ID);
+		verify(this.owners, never()).findWithPetsAndVisitsById(TEST_OWNER_ID);
 	}
 
 	@Test
@@ -538,9 +587,7 @@ class OwnerControllerTests {
 
 	@Test
 	void testProcessCreationFormDuplicateOwnerReturnsFormWithError() throws Exception {
-		Owner existing = george();
-		when(this.owners.findByFirstNameAndLastNameAndTelephone("George", "Franklin", "6085551023"))
-			.thenReturn(List.of(existing));
+		when(this.owners.save(any(Owner.class))).thenThrow(duplicateOwner());
 
 		mockMvc
 			.perform(post("/owners/new").param("firstName", "George")
@@ -555,25 +602,50 @@ class OwnerControllerTests {
 	}
 
 	@Test
-	void testProcessCreationFormDuplicateOwnerDoesNotSave() throws Exception {
-		Owner existing = george();
-		when(this.owners.findByFirstNameAndLastNameAndTelephone("George", "Franklin", "6085551023"))
-			.thenReturn(List.of(existing));
+	void testProcessCreationFormDuplicateOwnerDoesNotRedirect() throws Exception {
+		when(this.owners.save(any(Owner.class))).thenThrow(duplicateOwner());
 
-		mockMvc.perform(post("/owners/new").param("firstName", "George")
+		mockMvc
+			.perform(post("/owners/new").param("firstName", "George")
+				.param("lastName", "Franklin")
+				.param("address", "110 W. Liberty St.")
+				.param("city", "Madison")
+				.param("telephone", "6085551023"))
+			.andExpect(status().isOk())
+			.andExpect(flash().attributeCount(0));
+	}
+
+	@Test
+	void testProcessUpdateOwnerFormDuplicateOwnerReturnsFormWithError() throws Exception {
+		willThrow(duplicateOwner()).given(this.owners)
+			.updateContactDetails(any(Owner.class));
+
+		mockMvc
+			.perform(post("/owners/{ownerId}/edit", TEST_OWNER_ID).param("firstName", "Betty")
+				.param("lastName", "Davis")
+				.param("address", "638 Cardinal Ave.")
+				.param("city", "Sun Prairie")
+				.param("telephone", "6085551749"))
+			.andExpect(status().isOk())
+			.andExpect(model().attributeHasErrors("owner"))
+			.andExpect(view().name("owners/createOrUpdateOwnerForm"));
+	}
+
+	@Test
+	void testProcessCreationFormOtherIntegrityViolationIsNotReportedAsDuplicate() {
+		DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+				new ConstraintViolationException("value too long", new SQLException(), "PUBLIC.OWNERS_CITY"));
+		when(this.owners.save(any(Owner.class))).thenThrow(violation);
+
+		assertThatThrownBy(() -> mockMvc.perform(post("/owners/new").param("firstName", "George")
 			.param("lastName", "Franklin")
 			.param("address", "110 W. Liberty St.")
 			.param("city", "Madison")
-			.param("telephone", "6085551023"));
-
-		verify(this.owners, never()).save(any(Owner.class));
+			.param("telephone", "6085551023"))).hasCause(violation);
 	}
 
 	@Test
 	void testProcessCreationFormNonDuplicateSucceeds() throws Exception {
-		when(this.owners.findByFirstNameAndLastNameAndTelephone("Unique", "Person", "5551234567"))
-			.thenReturn(Collections.emptyList());
-
 		mockMvc
 			.perform(post("/owners/new").param("firstName", "Unique")
 				.param("lastName", "Person")
@@ -585,4 +657,130 @@ class OwnerControllerTests {
 		verify(this.owners).save(any(Owner.class));
 	}
 
+	@Test
+	void testProcessFindFormOffsetPageExposesNextCursor() throws Exception {
+		Owner george = george();
+		Owner betty = owner(2, "Betty", "Franklin");
+		Page<Owner> page1 = new PageImpl<>(List.of(george, betty), PageRequest.of(0, 2), 4);
+		when(this.owners.findSummariesByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""),
+				any(Pageable.class)))
+			.thenReturn(summaries(page1));
+
+		mockMvc.perform(get("/owners?page=1").param("lastName", "Franklin"))
+			.andExpect(status().isOk())
+			.andExpect(view().name("owners/ownersList"))
+			.andExpect(model().attribute("nextCursor", OwnerSearchCursor.of(summary(betty)).encode()))
+			.andExpect(model().attributeDoesNotExist("previousCursor"));
+	}
+
+	@Test
+	void testProcessFindFormSeeksAfterCursor() throws Exception {
+		OwnerSearchCursor cursor = new OwnerSearchCursor("franklin", 5);
+		List<Owner> rows = List.of(owner(6, "F", "Franklin"), owner(7, "G", "Franklin"), owner(8, "H", "Franklin"),
+				owner(9, "I", "Franklin"), owner(10, "J", "Franklin"), owner(11, "K", "Franklin"));
+		when(this.owners.findSummariesByLastNameAndTelephoneAndCityAfter(eq("Franklin"), eq(""), eq(""), eq("franklin"),
+				eq(5), eq(Limit.of(6))))
+			.thenReturn(summaries(rows));
+
+		mockMvc.perform(get("/owners").param("lastName", "Franklin").param("after", cursor.encode()))
+			.andExpect(status().isOk())
+			.andExpect(view().name("owners/ownersList"))
+			.andExpect(model().attribute("listOwners", hasSize(5)))
+			.andExpect(model().attribute("previousCursor", new OwnerSearchCursor("franklin", 6).encode()))
+			.andExpect(model().attribute("nextCursor", new OwnerSearchCursor("franklin", 10).encode()))
+			.andExpect(model().attributeDoesNotExist("totalPages", "totalItems"));
+
+		verify(this.owners, never()).findSummariesByLastNameAndTelephoneAndCity(anyString(), anyString(), anyString(),
+				any(Pageable.class));
+	}
+
+	@Test
+	void testProcessFindFormSeeksBeforeCursor() throws Exception {
+		OwnerSearchCursor cursor = new OwnerSearchCursor("franklin", 6);
+		// rows before the cursor come back in descending order
+		List<Owner> rows = List.of(owner(5, "E", "Franklin"), owner(4, "D", "Franklin"));
+		when(this.owners.findSummariesByLastNameAndTelephoneAndCityBefore(eq("Franklin"), eq(""), eq(""),
+				eq("franklin"), eq(6), eq(Limit.of(6))))
+			.thenReturn(summaries(rows));
+
+		mockMvc.perform(get("/owners").param("lastName", "Franklin").param("before", cursor.encode()))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("listOwners", hasSize(2)))
+			.andExpect(model().attribute("listOwners", contains(id(4), id(5))))
+			.andExpect(model().attributeDoesNotExist("previousCursor"))
+			.andExpect(model().attribute("nextCursor", new OwnerSearchCursor("franklin", 5).encode()));
+	}
+
+	@Test
+	void testProcessFindFormIgnoresMalformedCursor() throws Exception {
+		Page<Owner> tasks = new PageImpl<>(List.of(george()));
+		when(this.owners.findSummariesByLastNameAndTelephoneAndCity(eq("Franklin"), eq(""), eq(""),
+				any(Pageable.class)))
+			.thenReturn(summaries(tasks));
+
+		mockMvc.perform(get("/owners").param("lastName", "Franklin").param("after", "not a cursor"))
+			.andExpect(status().is3xxRedirection())
+			.andExpect(view().name("redirect:/owners/" + TEST_OWNER_ID));
+	}
+
+	@Test
+	void testAutocompleteOwnersReturnsSuggestionsAsJson() throws Exception {
+		given(this.ownerNames.suggest("fra", 3)).willReturn(List.of(new OwnerSuggestion(1, "George", "Franklin")));
+
+		mockMvc.perform(get("/owners/autocomplete").param("q", "fra").param("limit", "3"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].id").value(1))
+			.andExpect(jsonPath("$[0].firstName").value("George"))
+			.andExpect(jsonPath("$[0].lastName").value("Franklin"));
+	}
+
+	private static Page<OwnerSummary> summaries(Page<Owner> owners) {
+		return owners.map(OwnerControllerTests::summary);
+	}
+
+	private static List<OwnerSummary> summaries(List<Owner> owners) {
+		return owners.stream().map(OwnerControllerTests::summary).toList();
+	}
+
+	private static OwnerSummary summary(Owner owner) {
+		String petNames = owner.getPets().isEmpty() ? null
+				: String.join(", ", owner.getPets().stream().map(Pet::getName).toList());
+		return new OwnerSummary(owner.getId(), owner.getFirstName(), owner.getLastName(), owner.getAddress(),
+				owner.getCity(), owner.getTelephone(), petNames, SearchNormalizer.normalize(owner.getLastName()));
+	}
+
+	private static Matcher<OwnerSummary> lastName(Matcher<? super String> lastName) {
+		return new FeatureMatcher<>(lastName, "owner with last name", "last name") {
+			@Override
+			protected String featureValueOf(OwnerSummary owner) {
+				return owner.lastName();
+			}
+		};
+	}
+
+	private static Matcher<OwnerSummary> id(int id) {
+		return new FeatureMatcher<>(is(id), "owner with id", "id") {
+			@Override
+			protected Integer featureValueOf(OwnerSummary owner) {
+				return owner.id();
+			}
+		};
+	}
+
+	private Owner owner(int id, String firstName, String lastName) {
+		Owner owner = new Owner();
+		owner.setId(id);
+		owner.setFirstName(firstName);
+		owner.setLastName(lastName);
+		owner.setAddress("110 W. Liberty St.");
+		owner.setCity("Madison");
+		owner.setTelephone("6085551023");
+		return owner;
+	}
+
+	private static DataIntegrityViolationException duplicateOwner() {
+		return new DataIntegrityViolationException("could not execute statement", new ConstraintViolationException(
+				"Unique index or primary key violation", new SQLException(), "PUBLIC.OWNERS_IDENTITY_KEY"));
+	}
+
 }
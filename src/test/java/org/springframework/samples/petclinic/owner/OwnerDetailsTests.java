@@ -0,0 +1,66 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link OwnerDetails}.
+ */
+class OwnerDetailsTests {
+
+	@Test
+	void shouldKeepRecentVisitsPerPetAndFlagOlderOnes() {
+		Owner owner = new Owner();
+		Pet leo = pet(1, "Leo");
+		Pet max = pet(2, "Max");
+		List<Visit> visits = new ArrayList<>();
+		for (int day = OwnerDetails.RECENT_VISITS + 1; day > 0; day--) {
+			visits.add(visit(leo, day));
+		}
+		visits.add(visit(max, 1));
+
+		OwnerDetails details = OwnerDetails.of(owner, visits);
+
+		assertThat(details.recentVisits().get(1)).hasSize(OwnerDetails.RECENT_VISITS)
+			.first()
+			.extracting(Visit::getDate)
+			.isEqualTo(LocalDate.of(2013, 1, OwnerDetails.RECENT_VISITS + 1));
+		assertThat(details.recentVisits().get(2)).hasSize(1);
+		assertThat(details.petsWithOlderVisits()).containsExactly(1);
+	}
+
+	private static Pet pet(int id, String name) {
+		Pet pet = new Pet();
+		pet.setId(id);
+		pet.setName(name);
+		return pet;
+	}
+
+	private static Visit visit(Pet pet, int day) {
+		Visit visit = new Visit();
+		visit.setPet(pet);
+		visit.setDate(LocalDate.of(2013, 1, day));
+		return visit;
+	}
+
+}
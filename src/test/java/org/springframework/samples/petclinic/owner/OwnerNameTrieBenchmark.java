@@ -0,0 +1,73 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.samples.petclinic.Benchmark;
+import org.springframework.samples.petclinic.Latencies;
+
+/**
+ * Benchmark for {@link OwnerNameTrie} lookups, logging build time and lookup latency
+ * percentiles for random one- to four-letter prefixes. The number of owners is set with
+ * {@code -Dbenchmark.owners=1000000}.
+ */
+@Benchmark
+class OwnerNameTrieBenchmark {
+
+	private static final Log logger = LogFactory.getLog(OwnerNameTrieBenchmark.class);
+
+	private static final int OWNERS = Integer.getInteger("benchmark.owners", 1_000_000);
+
+	private static final int LOOKUPS = 1_000_000;
+
+	@Test
+	void suggest() {
+		Random random = new Random(42);
+		List<OwnerSuggestion> owners = new ArrayList<>(OWNERS);
+		for (int id = 1; id <= OWNERS; id++) {
+			owners.add(new OwnerSuggestion(id, "First" + id, randomName(random)));
+		}
+		OwnerNameTrie trie = new OwnerNameTrie(null);
+		long start = System.nanoTime();
+		trie.replaceAll(owners);
+		long buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+		String[] prefixes = new String[LOOKUPS];
+		for (int i = 0; i < LOOKUPS; i++) {
+			prefixes[i] = randomName(random).substring(0, 1 + random.nextInt(4));
+		}
+		Latencies latencies = Latencies.measure(LOOKUPS, LOOKUPS, i -> trie.suggest(prefixes[i], OwnerNameTrie.TOP_K));
+		logger.info(String.format("%n=== owner autocomplete, %,d owners, built in %d ms ===%n%s", OWNERS,
+				buildMillis, latencies));
+	}
+
+	private static String randomName(Random random) {
+		char[] name = new char[5 + random.nextInt(6)];
+		name[0] = (char) ('A' + random.nextInt(26));
+		for (int i = 1; i < name.length; i++) {
+			name[i] = (char) ('a' + random.nextInt(26));
+		}
+		return new String(name);
+	}
+
+}
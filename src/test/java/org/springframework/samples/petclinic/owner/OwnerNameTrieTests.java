@@ -0,0 +1,87 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link OwnerNameTrie}.
+ */
+class OwnerNameTrieTests {
+
+	private final OwnerNameTrie trie = new OwnerNameTrie(null);
+
+	@BeforeEach
+	void setup() {
+		trie.replaceAll(List.of(new OwnerSuggestion(1, "George", "Franklin"), new OwnerSuggestion(2, "Betty", "Davis"),
+				new OwnerSuggestion(4, "Harold", "Davis"), new OwnerSuggestion(6, "Jean", "Coleman"),
+				new OwnerSuggestion(3, "Eduardo", "Rodriquez")));
+	}
+
+	@Test
+	void shouldSuggestOwnersByLastNamePrefixInSearchOrder() {
+		assertThat(trie.suggest("da", 10)).extracting(OwnerSuggestion::id).containsExactly(2, 4);
+		assertThat(trie.suggest("", 10)).extracting(OwnerSuggestion::id).containsExactly(6, 2, 4, 1, 3);
+	}
+
+	@Test
+	void shouldIgnoreCaseAndAccents() {
+		assertThat(trie.suggest("FRÁN", 10)).extracting(OwnerSuggestion::lastName).containsExactly("Franklin");
+	}
+
+	@Test
+	void shouldReturnNothingForUnknownPrefix() {
+		assertThat(trie.suggest("x", 10)).isEmpty();
+	}
+
+	@Test
+	void shouldApplyLimit() {
+		assertThat(trie.suggest("", 2)).extracting(OwnerSuggestion::id).containsExactly(6, 2);
+	}
+
+	@Test
+	void shouldMoveRenamedOwner() {
+		trie.put(new OwnerSuggestion(2, "Betty", "Black"));
+
+		assertThat(trie.suggest("da", 10)).extracting(OwnerSuggestion::id).containsExactly(4);
+		assertThat(trie.suggest("bl", 10)).extracting(OwnerSuggestion::firstName).containsExactly("Betty");
+	}
+
+	@Test
+	void shouldRefillTopListWhenOwnerLeavesIt() {
+		List<OwnerSuggestion> smiths = new ArrayList<>();
+		for (int id = 100; id < 100 + OwnerNameTrie.TOP_K + 2; id++) {
+			smiths.add(new OwnerSuggestion(id, "First" + id, "Smith"));
+		}
+		trie.replaceAll(smiths);
+
+		trie.put(new OwnerSuggestion(100, "First100", "Jones"));
+
+		assertThat(trie.suggest("smi", OwnerNameTrie.TOP_K)).hasSize(OwnerNameTrie.TOP_K)
+			.extracting(OwnerSuggestion::id)
+			.startsWith(101)
+			.endsWith(100 + OwnerNameTrie.TOP_K);
+		assertThat(trie.suggest("", 1)).extracting(OwnerSuggestion::id).containsExactly(100);
+	}
+
+}
@@ -17,13 +17,24 @@
 package org.springframework.samples.petclinic.owner;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 /**
  * Integration tests for {@link OwnerRepository} multi-criteria search query.
@@ -45,24 +56,28 @@ import org.springframework.data.domain.Pageable;
  * </ul>
  */
 @DataJpaTest
+@Import(OwnerSearchColumnsBackfill.class)
 class OwnerRepositoryTests {
 
 	@Autowired
 	private OwnerRepository owners;
 
+	@Autowired
+	private TestEntityManager entityManager;
+
 	private final Pageable pageable = PageRequest.of(0, 20);
 
 	@Test
 	void shouldFindAllOwnersWhenAllFieldsEmpty() {
-		Page<Owner> result = owners.findByLastNameAndTelephoneAndCity("", "", "", pageable);
+		Page<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCity("", "", "", pageable);
 		assertThat(result.getTotalElements()).isEqualTo(10);
 	}
 
 	@Test
 	void shouldFindOwnersByLastNameOnly() {
-		Page<Owner> result = owners.findByLastNameAndTelephoneAndCity("Davis", "", "", pageable);
+		Page<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCity("Davis", "", "", pageable);
 		assertThat(result.getTotalElements()).isEqualTo(2);
-		assertThat(result.getContent()).extracting(Owner::getLastName).containsOnly("Davis");
+		assertThat(result.getContent()).extracting(OwnerSummary::lastName).containsOnly("Davis");
 	}
 
 	@Test
@@ -70,85 +85,307 @@ class OwnerRepositoryTests {
 		// "D" should match Davis (2) + Davis (4) = 2 owners with last name starting with
 		// "D"
 		// Note: there's also David Schroeder but his last name is Schroeder
-		Page<Owner> result = owners.findByLastNameAndTelephoneAndCity("D", "", "", pageable);
+		Page<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCity("D", "", "", pageable);
 		assertThat(result.getTotalElements()).isEqualTo(2);
 	}
 
 	@Test
 	void shouldFindOwnerByTelephoneOnly() {
 		// George Franklin's telephone
-		Page<Owner> result = owners.findByLastNameAndTelephoneAndCity("", "6085551023", "", pageable);
+		Page<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCity("", "6085551023", "", pageable);
 		assertThat(result.getTotalElements()).isEqualTo(1);
-		assertThat(result.getContent().get(0).getFirstName()).isEqualTo("George");
-		assertThat(result.getContent().get(0).getLastName()).isEqualTo("Franklin");
+		assertThat(result.getContent().get(0).firstName()).isEqualTo("George");
+		assertThat(result.getContent().get(0).lastName()).isEqualTo("Franklin");
+	}
+
+	@Test
+	void shouldFindOwnerByTelephoneLookup() {
+		Page<OwnerSummary> result = owners.findSummariesByTelephone("6085551023", pageable);
+		assertThat(result.getTotalElements()).isEqualTo(1);
+		assertThat(result.getContent().get(0).lastName()).isEqualTo("Franklin");
+		assertThat(result.getContent().get(0).petNames()).isEqualTo("Leo");
+	}
+
+	@Test
+	void shouldUpdateContactDetailsAndSearchColumns() {
+		Owner owner = new Owner();
+		owner.setId(1);
+		owner.setFirstName("George");
+		owner.setLastName("Franklin");
+		owner.setAddress("110 W. Liberty St.");
+		owner.setCity("Madison");
+		owner.setTelephone("6085550001");
+
+		owners.updateContactDetails(owner);
+
+		assertThat(owners.findIdsByTelephone("6085550001")).containsExactly(1);
+		assertThat(owners.findIdsByTelephone("6085551023")).isEmpty();
+	}
+
+	@Test
+	void shouldDeletePetWithItsVisitsOnlyForItsOwner() {
+		// pet 7 (Samantha) of owner 6 (Jean Coleman) has three visits
+		Owner george = owners.findById(1).orElseThrow();
+		Owner jean = owners.findById(6).orElseThrow();
+
+		assertThat(owners.deletePet(george, 7)).isFalse();
+		assertThat(entityManager.find(Pet.class, 7)).isNotNull();
+
+		assertThat(owners.deletePet(jean, 7)).isTrue();
+		entityManager.clear();
+		assertThat(entityManager.find(Pet.class, 7)).isNull();
+		assertThat(entityManager.getEntityManager()
+			.createQuery("SELECT COUNT(visit) FROM Visit visit WHERE visit.pet.id = 7", Long.class)
+			.getSingleResult()).isZero();
+		assertThat(owners.findWithPetsById(6).orElseThrow().getPets()).extracting(Pet::getName).containsExactly("Max");
+	}
+
+	@Test
+	void shouldRejectDuplicateOwnerIgnoringCase() {
+		// George Franklin, 6085551023 already exists
+		Owner owner = new Owner();
+		owner.setFirstName("GEORGE");
+		owner.setLastName("franklin");
+		owner.setAddress("1 Main St.");
+		owner.setCity("Verona");
+		owner.setTelephone("6085551023");
+
+		assertThatExceptionOfType(DataIntegrityViolationException.class).isThrownBy(() -> owners.saveAndFlush(owner))
+			.satisfies(ex -> assertThat(OwnerController.isDuplicateOwner(ex)).isTrue());
 	}
 
 	@Test
 	void shouldFindOwnersByCityOnly() {
 		// Madison has: George Franklin, Peter McTavish, Maria Escobito, David Schroeder
 		// = 4 owners
-		Page<Owner> result = owners.findByLastNameAndTelephoneAndCity("", "", "Madison", pageable);
+		Page<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCity("", "", "Madison", pageable);
 		assertThat(result.getTotalElements()).isEqualTo(4);
-		assertThat(result.getContent()).extracting(Owner::getCity).containsOnly("Madison");
+		assertThat(result.getContent()).extracting(OwnerSummary::city).containsOnly("Madison");
 	}
 
 	@Test
 	void shouldFindOwnersByCityCaseInsensitive() {
-		Page<Owner> result = owners.findByLastNameAndTelephoneAndCity("", "", "madison", pageable);
+		Page<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCity("", "", "madison", pageable);
 		assertThat(result.getTotalElements()).isEqualTo(4);
 	}
 
 	@Test
 	void shouldFindOwnersByCitySubstring() {
 		// "Mon" should match "Monona" (Jean Coleman, Jeff Black)
-		Page<Owner> result = owners.findByLastNameAndTelephoneAndCity("", "", "Mon", pageable);
+		Page<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCity("", "", "Mon", pageable);
 		assertThat(result.getTotalElements()).isEqualTo(2);
-		assertThat(result.getContent()).extracting(Owner::getCity).containsOnly("Monona");
+		assertThat(result.getContent()).extracting(OwnerSummary::city).containsOnly("Monona");
 	}
 
 	@Test
 	void shouldFindOwnersByLastNameAndTelephone() {
 		// Davis + 6085551749 = only Betty Davis (not Harold Davis)
-		Page<Owner> result = owners.findByLastNameAndTelephoneAndCity("Davis", "6085551749", "", pageable);
+		Page<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCity("Davis", "6085551749", "",
+				pageable);
 		assertThat(result.getTotalElements()).isEqualTo(1);
-		assertThat(result.getContent().get(0).getFirstName()).isEqualTo("Betty");
+		assertThat(result.getContent().get(0).firstName()).isEqualTo("Betty");
 	}
 
 	@Test
 	void shouldFindOwnersByLastNameAndCity() {
 		// Empty lastName prefix + Madison city = all Madison owners
 		// But if we filter by "Franklin" + Madison = only George
-		Page<Owner> result = owners.findByLastNameAndTelephoneAndCity("Franklin", "", "Madison", pageable);
+		Page<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCity("Franklin", "", "Madison",
+				pageable);
 		assertThat(result.getTotalElements()).isEqualTo(1);
-		assertThat(result.getContent().get(0).getFirstName()).isEqualTo("George");
+		assertThat(result.getContent().get(0).firstName()).isEqualTo("George");
 	}
 
 	@Test
 	void shouldFindOwnersByAllThreeCriteria() {
-		Page<Owner> result = owners.findByLastNameAndTelephoneAndCity("Franklin", "6085551023", "Madison", pageable);
+		Page<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCity("Franklin", "6085551023",
+				"Madison", pageable);
 		assertThat(result.getTotalElements()).isEqualTo(1);
-		assertThat(result.getContent().get(0).getFirstName()).isEqualTo("George");
+		assertThat(result.getContent().get(0).firstName()).isEqualTo("George");
 	}
 
 	@Test
 	void shouldReturnEmptyWhenNoMatch() {
-		Page<Owner> result = owners.findByLastNameAndTelephoneAndCity("NonExistent", "", "", pageable);
+		Page<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCity("NonExistent", "", "", pageable);
 		assertThat(result.getTotalElements()).isEqualTo(0);
 	}
 
 	@Test
 	void shouldReturnEmptyWhenCriteriaDontMatchSameOwner() {
 		// Franklin lastName + Davis telephone = no match (different owners)
-		Page<Owner> result = owners.findByLastNameAndTelephoneAndCity("Franklin", "6085551749", "", pageable);
+		Page<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCity("Franklin", "6085551749", "",
+				pageable);
 		assertThat(result.getTotalElements()).isEqualTo(0);
 	}
 
 	@Test
 	void shouldFindOwnersByTelephoneAndCity() {
 		// Telephone for George Franklin + Madison city
-		Page<Owner> result = owners.findByLastNameAndTelephoneAndCity("", "6085551023", "Madison", pageable);
+		Page<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCity("", "6085551023", "Madison",
+				pageable);
 		assertThat(result.getTotalElements()).isEqualTo(1);
-		assertThat(result.getContent().get(0).getFirstName()).isEqualTo("George");
+		assertThat(result.getContent().get(0).firstName()).isEqualTo("George");
+	}
+
+	@Test
+	void shouldSeekThroughOwnersInSameOrderAsOffsetPagination() {
+		List<Integer> expected = owners.findIdsByLastNameAndTelephoneAndCity("", "", "", pageable).getContent();
+
+		List<Integer> seen = new ArrayList<>();
+		List<OwnerSummary> page = owners.findSummariesByLastNameAndTelephoneAndCity("", "", "", PageRequest.of(0, 3))
+			.getContent();
+		while (!page.isEmpty()) {
+			page.forEach(owner -> seen.add(owner.id()));
+			OwnerSummary last = page.get(page.size() - 1);
+			page = owners.findSummariesByLastNameAndTelephoneAndCityAfter("", "", "", last.lastNameSearch(), last.id(),
+					Limit.of(3));
+		}
+
+		assertThat(seen).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	void shouldSeekBackwardsFromCursor() {
+		List<OwnerSummary> davises = owners.findSummariesByLastNameAndTelephoneAndCity("Davis", "", "", pageable)
+			.getContent();
+		OwnerSummary last = davises.get(davises.size() - 1);
+
+		List<OwnerSummary> before = owners.findSummariesByLastNameAndTelephoneAndCityBefore("Davis", "", "",
+				last.lastNameSearch(), last.id(), Limit.of(2));
+
+		assertThat(before).extracting(OwnerSummary::id)
+			.containsExactly(davises.get(davises.size() - 2).id(), davises.get(davises.size() - 3).id());
+	}
+
+	@Test
+	void shouldApplyFiltersWhenSeeking() {
+		List<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCityAfter("", "", "Monona", "a", 0,
+				Limit.of(5));
+		assertThat(result).extracting(OwnerSummary::city).containsOnly("Monona");
+		assertThat(result).extracting(OwnerSummary::lastName).containsExactly("Black", "Coleman");
+	}
+
+	@Test
+	void shouldOrderAndSeekOnNormalizedLastName() {
+		for (String lastName : List.of("Eto", "Ésteban")) {
+			Owner owner = new Owner();
+			owner.setFirstName("Élodie");
+			owner.setLastName(lastName);
+			owner.setAddress("1 Rue de la Paix");
+			owner.setCity("Québec");
+			owner.setTelephone("6085550000");
+			entityManager.persistAndFlush(owner);
+		}
+
+		// "Ésteban" sorts between "Estaban" and "Eto" once the accent is folded
+		List<OwnerSummary> offset = owners.findSummariesByLastNameAndTelephoneAndCity("e", "", "", pageable)
+			.getContent();
+		assertThat(offset).extracting(OwnerSummary::lastName).containsExactly("Escobito", "Estaban", "Ésteban", "Eto");
+
+		OwnerSearchCursor cursor = OwnerSearchCursor.of(offset.get(1));
+		assertThat(owners.findSummariesByLastNameAndTelephoneAndCityAfter("e", "", "", cursor.lastNameSearch(),
+				cursor.id(), Limit.of(5)))
+			.extracting(OwnerSummary::lastName)
+			.containsExactly("Ésteban", "Eto");
+	}
+
+	@Test
+	void shouldRefuseToPaginateCollectionFetchInMemory() {
+		// guards against owner search queries that page a fetch join in memory
+		assertThatThrownBy(() -> entityManager.getEntityManager()
+			.createQuery("SELECT DISTINCT owner FROM Owner owner LEFT JOIN FETCH owner.pets", Owner.class)
+			.setMaxResults(5)
+			.getResultList()).hasMessageContaining("in-memory pagination");
+	}
+
+	@Test
+	void shouldMatchLikeWildcardsLiterally() {
+		assertThat(owners.findSummariesByLastNameAndTelephoneAndCity("%", "", "", pageable)).isEmpty();
+		assertThat(owners.findSummariesByLastNameAndTelephoneAndCity("", "", "_", pageable)).isEmpty();
+	}
+
+	@Test
+	void shouldMatchLastNameAndCityIgnoringAccents() {
+		Owner owner = new Owner();
+		owner.setFirstName("Élodie");
+		owner.setLastName("Ésteban");
+		owner.setAddress("1 Rue de la Paix");
+		owner.setCity("Québec");
+		owner.setTelephone("6085550000");
+		entityManager.persistAndFlush(owner);
+
+		assertThat(owners.findSummariesByLastNameAndTelephoneAndCity("ést", "", "", pageable))
+			.extracting(OwnerSummary::lastName)
+			.containsExactly("Estaban", "Ésteban");
+		assertThat(owners.findSummariesByLastNameAndTelephoneAndCity("", "", "QUEBEC", pageable))
+			.extracting(OwnerSummary::id)
+			.containsExactly(owner.getId());
+	}
+
+	@Test
+	void shouldSliceWithOneRowLookahead() {
+		// Monona has Jeff Black (7) and Jean Coleman (6)
+		Slice<Integer> first = owners.findIdsByLastNameAndTelephoneAndCity("", "", "Monona", PageRequest.of(0, 1));
+		Slice<Integer> last = owners.findIdsByLastNameAndTelephoneAndCity("", "", "Monona", PageRequest.of(1, 1));
+
+		assertThat(first.getContent()).containsExactly(7);
+		assertThat(first.hasNext()).isTrue();
+		assertThat(last.getContent()).containsExactly(6);
+		assertThat(last.hasNext()).isFalse();
+	}
+
+	@Test
+	void shouldDerivePageTotalOnLastPage() {
+		long total = owners.count();
+		int size = 3;
+		int lastPage = (int) ((total - 1) / size);
+
+		Page<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCity("", "", "",
+				PageRequest.of(lastPage, size));
+
+		assertThat(result.getTotalElements()).isEqualTo(total);
+		assertThat(result.isLast()).isTrue();
+	}
+
+	@Test
+	void shouldSummarizeOwnersWithPetNamesJoinedInOrder() {
+		Owner owner = new Owner();
+		owner.setFirstName("Nina");
+		owner.setLastName("Moore");
+		owner.setAddress("1 Lake St.");
+		owner.setCity("Monona");
+		owner.setTelephone("6085550000");
+		entityManager.persistAndFlush(owner);
+
+		Page<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCity("", "", "Monona", pageable);
+
+		assertThat(result.getTotalElements()).isEqualTo(3);
+		assertThat(result.getContent()).extracting(OwnerSummary::lastName).containsExactly("Black", "Coleman", "Moore");
+		assertThat(result.getContent()).extracting(OwnerSummary::petNames)
+			.containsExactly("Lucky", "Max, Samantha", null);
+		assertThat(result.getContent().get(1)).isEqualTo(
+				new OwnerSummary(6, "Jean", "Coleman", "105 N. Lake St.", "Monona", "6085552654", "Max, Samantha",
+						"coleman"));
+	}
+
+	@Test
+	void shouldSummarizeOwnersWithoutManagingEntities() {
+		List<Integer> expected = owners.findIdsByLastNameAndTelephoneAndCity("", "", "", PageRequest.of(1, 3))
+			.getContent();
+		entityManager.clear();
+
+		Page<OwnerSummary> result = owners.findSummariesByLastNameAndTelephoneAndCity("", "", "", PageRequest.of(1, 3));
+
+		assertThat(result.getContent()).extracting(OwnerSummary::id).containsExactlyElementsOf(expected);
+		assertThat(result.getTotalElements()).isEqualTo(owners.count());
+		// the summaries are plain records, nothing is left in the persistence context
+		assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+	}
+
+	@Test
+	void shouldCountMatchingOwners() {
+		assertThat(owners.countByLastNameAndTelephoneAndCity("", "", "Monona")).isEqualTo(2);
+		assertThat(owners.countByLastNameAndTelephoneAndCity("", "", "Springfield")).isZero();
 	}
 
 }
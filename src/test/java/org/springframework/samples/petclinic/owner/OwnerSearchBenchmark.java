@@ -0,0 +1,157 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.Benchmark;
+import org.springframework.samples.petclinic.Latencies;
+import org.springframework.samples.petclinic.model.SearchNormalizer;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Benchmark for the owner search, comparing the dynamic criteria query with the former
+ * catch-all JPQL query for last-name-only, telephone-only and city-only searches. For
+ * each search it logs the database execution plan and latency percentiles. The number of
+ * owners is set with {@code -Dbenchmark.owners=1000000}.
+ */
+@Benchmark
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(Lifecycle.PER_CLASS)
+@DirtiesContext
+class OwnerSearchBenchmark {
+
+	private static final Log logger = LogFactory.getLog(OwnerSearchBenchmark.class);
+
+	private static final int OWNERS = Integer.getInteger("benchmark.owners", 1_000_000);
+
+	private static final int WARMUP = 20;
+
+	private static final int ITERATIONS = 200;
+
+	private static final String CATCH_ALL_QUERY = "SELECT owner.id FROM Owner owner "
+			+ "WHERE (:lastName IS NULL OR LOWER(owner.lastName) LIKE LOWER(CONCAT(:lastName, '%'))) "
+			+ "AND (:telephone = '' OR owner.telephone = :telephone) "
+			+ "AND (:city = '' OR LOWER(owner.city) LIKE LOWER(CONCAT('%', :city, '%'))) "
+			+ "ORDER BY owner.lastName ASC, owner.id ASC";
+
+	private static final String CATCH_ALL_COUNT_QUERY = "SELECT COUNT(owner) FROM Owner owner "
+			+ "WHERE (:lastName IS NULL OR LOWER(owner.lastName) LIKE LOWER(CONCAT(:lastName, '%'))) "
+			+ "AND (:telephone = '' OR owner.telephone = :telephone) "
+			+ "AND (:city = '' OR LOWER(owner.city) LIKE LOWER(CONCAT('%', :city, '%')))";
+
+	private static final String CATCH_ALL_SQL = "SELECT id FROM owners "
+			+ "WHERE (? IS NULL OR LOWER(last_name) LIKE LOWER(CONCAT(?, '%'))) "
+			+ "AND (? = '' OR telephone = ?) AND (? = '' OR LOWER(city) LIKE LOWER(CONCAT('%', ?, '%'))) "
+			+ "ORDER BY last_name, id LIMIT 5";
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	void populate() {
+		int batchSize = 10_000;
+		for (int start = 0; start < OWNERS; start += batchSize) {
+			List<Object[]> rows = new ArrayList<>(batchSize);
+			for (int i = start; i < Math.min(start + batchSize, OWNERS); i++) {
+				String lastName = "Last" + (i % 20_000);
+				String city = "City" + (i % 2_000);
+				String telephone = String.valueOf(2_000_000_000L + i);
+				rows.add(new Object[] { "First" + i, lastName, i + " Main St.", city, telephone,
+						SearchNormalizer.normalize(lastName), SearchNormalizer.normalize(city), telephone });
+			}
+			this.jdbcTemplate.batchUpdate("INSERT INTO owners (first_name, last_name, address, city, telephone, "
+					+ "last_name_search, city_search, telephone_search) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+		}
+		this.jdbcTemplate.execute("ANALYZE");
+	}
+
+	@Test
+	void lastNameOnly() {
+		benchmark("last name only", "Last1234", "", "",
+				"SELECT id FROM owners WHERE last_name_search LIKE 'last1234%' ORDER BY last_name_search, id LIMIT 5");
+	}
+
+	@Test
+	void telephoneOnly() {
+		benchmark("telephone only", "", "2000123456", "",
+				"SELECT id FROM owners WHERE telephone_search = '2000123456' ORDER BY last_name_search, id LIMIT 5");
+	}
+
+	@Test
+	void cityOnly() {
+		benchmark("city only", "", "", "City1234",
+				"SELECT id FROM owners WHERE city_search LIKE '%city1234%' ORDER BY last_name_search, id LIMIT 5");
+	}
+
+	private void benchmark(String label, String lastName, String telephone, String city, String dynamicSql) {
+		PageRequest page = PageRequest.of(0, 5);
+		Latencies dynamic = Latencies.measure(WARMUP, ITERATIONS,
+				i -> this.owners.findIdsByLastNameAndTelephoneAndCity(lastName, telephone, city, page));
+		Latencies catchAll = Latencies.measure(WARMUP, ITERATIONS, i -> {
+			this.entityManager.createQuery(CATCH_ALL_QUERY, Integer.class)
+				.setParameter("lastName", lastName)
+				.setParameter("telephone", telephone)
+				.setParameter("city", city)
+				.setMaxResults(5)
+				.getResultList();
+			// the former query always paid for the count as well
+			this.entityManager.createQuery(CATCH_ALL_COUNT_QUERY, Long.class)
+				.setParameter("lastName", lastName)
+				.setParameter("telephone", telephone)
+				.setParameter("city", city)
+				.getSingleResult();
+		});
+
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("%n=== %s, %,d owners ===%n", label, OWNERS));
+		report.append("dynamic   ").append(dynamic).append('\n');
+		report.append("catch-all ").append(catchAll).append('\n');
+		report.append("plan (dynamic):\n").append(explain(dynamicSql)).append('\n');
+		report.append("plan (catch-all):\n")
+			.append(explain(CATCH_ALL_SQL, lastName, lastName, telephone, telephone, city, city))
+			.append('\n');
+		logger.info(report);
+	}
+
+	private String explain(String sql, Object... args) {
+		return String.join("\n", this.jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+	}
+
+}
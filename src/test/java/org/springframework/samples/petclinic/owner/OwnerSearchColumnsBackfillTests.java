@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Integration tests for {@link OwnerSearchColumnsBackfill}.
+ */
+@DataJpaTest
+@Import(OwnerSearchColumnsBackfill.class)
+class OwnerSearchColumnsBackfillTests {
+
+	@Autowired
+	private OwnerSearchColumnsBackfill backfill;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void shouldFillSampleDataOnStartup() {
+		assertThat(columns(1)).containsEntry("last_name_search", "franklin")
+			.containsEntry("identity_key", "george|franklin|6085551023");
+	}
+
+	@Test
+	void shouldNormalizeLikeTheSearchAndKeyFirstOfDuplicates() {
+		insert(100, "Zoë", "Ünal", "(608) 555-0199");
+		insert(101, "zoe", "unal", "608 555 0199");
+
+		this.backfill.backfill();
+
+		assertThat(columns(100)).containsEntry("last_name_search", "unal")
+			.containsEntry("city_search", "monona")
+			.containsEntry("telephone_search", "6085550199")
+			.containsEntry("identity_key", "zoe|unal|6085550199");
+		assertThat(columns(101)).containsEntry("telephone_search", "6085550199").containsEntry("identity_key", null);
+	}
+
+	@Test
+	void shouldCorrectColumnsDerivedOtherwise() {
+		insert(100, "Zoë", "Ünal", "(608) 555-0199");
+		// as the former SQL backfill did, lower-cased only
+		this.jdbcTemplate.update("UPDATE owners SET last_name_search = 'ünal', "
+				+ "identity_key = 'zoë|ünal|(608) 555-0199' WHERE id = 100");
+
+		this.backfill.backfill();
+
+		assertThat(columns(100)).containsEntry("last_name_search", "unal")
+			.containsEntry("identity_key", "zoe|unal|6085550199");
+	}
+
+	private void insert(int id, String firstName, String lastName, String telephone) {
+		this.jdbcTemplate.update("INSERT INTO owners (id, first_name, last_name, address, city, telephone) "
+				+ "VALUES (?, ?, ?, '1 Lake St.', 'Monona', ?)", id, firstName, lastName, telephone);
+	}
+
+	private Map<String, Object> columns(int id) {
+		return this.jdbcTemplate.queryForMap(
+				"SELECT last_name_search, city_search, telephone_search, identity_key FROM owners WHERE id = ?", id);
+	}
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link OwnerSearchCursor}
+ */
+class OwnerSearchCursorTests {
+
+	@Test
+	void shouldRoundTripThroughEncodedForm() {
+		OwnerSearchCursor cursor = new OwnerSearchCursor("O'Brien: Sr.", 42);
+		assertThat(OwnerSearchCursor.decode(cursor.encode())).contains(cursor);
+	}
+
+	@Test
+	void shouldProduceUrlSafeTokens() {
+		String token = new OwnerSearchCursor("Ünsal/Davis+?", 7).encode();
+		assertThat(token).matches("[A-Za-z0-9_-]+");
+	}
+
+	@Test
+	void shouldRejectMissingOrMalformedTokens() {
+		assertThat(OwnerSearchCursor.decode(null)).isEmpty();
+		assertThat(OwnerSearchCursor.decode("")).isEmpty();
+		assertThat(OwnerSearchCursor.decode("not a cursor")).isEmpty();
+		assertThat(OwnerSearchCursor.decode("Zm9vYmFy")).isEmpty(); // "foobar"
+		assertThat(OwnerSearchCursor.decode("eDpEYXZpcw")).isEmpty(); // "x:Davis"
+	}
+
+}
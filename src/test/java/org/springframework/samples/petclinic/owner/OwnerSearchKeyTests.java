@@ -0,0 +1,87 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Tests for {@link OwnerSearchKey} and the eviction done by
+ * {@link OwnerSearchCacheEvictor}.
+ */
+class OwnerSearchKeyTests {
+
+	@Test
+	void shouldNormalizeCriteria() {
+		assertThat(OwnerSearchKey.of(0, "Ésteban", "608-555-1023", "MADISON", PageRequest.of(1, 5)))
+			.isEqualTo(OwnerSearchKey.of(0, "esteban", "6085551023", "madison", PageRequest.of(1, 5)));
+	}
+
+	@Test
+	void shouldKeySearchesByGeneration() {
+		assertThat(OwnerSearchKey.of(1, "davis", "", "", PageRequest.of(0, 5)))
+			.isNotEqualTo(OwnerSearchKey.of(0, "davis", "", "", PageRequest.of(0, 5)));
+	}
+
+	@Test
+	void shouldClearSearchesAndAdvanceGenerationWhenOwnerSaved() {
+		CaffeineCache results = new CaffeineCache(OwnerRepository.SEARCH_CACHE, Caffeine.newBuilder().build());
+		CaffeineCache counts = new CaffeineCache(OwnerSearchRepository.COUNT_CACHE, Caffeine.newBuilder().build());
+		SimpleCacheManager cacheManager = new SimpleCacheManager();
+		cacheManager.setCaches(List.of(results, counts));
+		cacheManager.afterPropertiesSet();
+		OwnerSearchCacheEvictor evictor = new OwnerSearchCacheEvictor(cacheManager);
+
+		long generation = evictor.generation();
+		results.put(OwnerSearchKey.of(generation, "d", "", "", PageRequest.of(0, 5)), new PageImpl<>(List.of()));
+		counts.put(OwnerSearchKey.of(generation, "d", "", "", Pageable.unpaged()), 0L);
+
+		evictor.onOwnerSaved(new OwnerSavedEvent(new Owner()));
+
+		assertThat(results.getNativeCache().asMap()).isEmpty();
+		assertThat(counts.getNativeCache().asMap()).isEmpty();
+		assertThat(evictor.generation()).isGreaterThan(generation);
+	}
+
+	@Test
+	void shouldNotServeSearchLoadedBeforeOwnerSaved() {
+		CaffeineCache results = new CaffeineCache(OwnerRepository.SEARCH_CACHE, Caffeine.newBuilder().build());
+		SimpleCacheManager cacheManager = new SimpleCacheManager();
+		cacheManager.setCaches(List.of(results));
+		cacheManager.afterPropertiesSet();
+		OwnerSearchCacheEvictor evictor = new OwnerSearchCacheEvictor(cacheManager);
+
+		// a search reads the generation and loads, an owner is saved meanwhile, and the
+		// stale page is stored after the eviction
+		OwnerSearchKey loading = OwnerSearchKey.of(evictor.generation(), "d", "", "", PageRequest.of(0, 5));
+		evictor.onOwnerSaved(new OwnerSavedEvent(new Owner()));
+		results.put(loading, new PageImpl<>(List.of()));
+
+		assertThat(results.get(OwnerSearchKey.of(evictor.generation(), "d", "", "", PageRequest.of(0, 5))))
+			.isNull();
+	}
+
+}
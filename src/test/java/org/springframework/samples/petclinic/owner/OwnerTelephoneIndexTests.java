@@ -0,0 +1,88 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Integration tests for {@link OwnerTelephoneIndex} and its use by the owner search.
+ * <p>
+ * Uses the default H2 database populated by {@code data.sql}: owner 1 (Franklin) has
+ * telephone 6085551023, owner 4 (Davis) 6085553198 and owner 5 (McTavish) 6085552765.
+ * </p>
+ */
+@DataJpaTest
+@Import({ OwnerSearchColumnsBackfill.class, OwnerTelephoneIndex.class })
+class OwnerTelephoneIndexTests {
+
+	@Autowired
+	private OwnerTelephoneIndex index;
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Test
+	void shouldResolveTelephoneIgnoringFormatting() {
+		assertThat(index.findOwnerIds("6085551023")).contains(List.of(1));
+		assertThat(index.findOwnerIds("608-555-1023")).contains(List.of(1));
+	}
+
+	@Test
+	void shouldReturnNoIdsForUnknownTelephone() {
+		assertThat(index.findOwnerIds("5550000000")).contains(List.of());
+		assertThat(owners.findSummariesByTelephone("5550000000", PageRequest.of(0, 5))).isEmpty();
+	}
+
+	@Test
+	void shouldKeepOwnersSharingATelephoneInSearchOrder() {
+		Owner owner = owners.findById(4).orElseThrow();
+		owner.setTelephone("6085552765");
+
+		index.onOwnerSaved(new OwnerSavedEvent(owner));
+
+		assertThat(index.findOwnerIds("6085552765")).contains(List.of(4, 5));
+		assertThat(index.findOwnerIds("6085553198")).isEqualTo(Optional.of(List.of()));
+	}
+
+	@Test
+	void shouldIndexOwnerSavedWithoutSearchColumns() {
+		Owner owner = new Owner();
+		owner.setId(4);
+		owner.setLastName("Davis");
+		owner.setTelephone("6085552765");
+
+		index.onOwnerSaved(new OwnerSavedEvent(owner));
+
+		assertThat(index.findOwnerIds("6085552765")).contains(List.of(4, 5));
+	}
+
+	@Test
+	void shouldSearchOwnersThroughIndexedTelephones() {
+		assertThat(owners.findSummariesByTelephone("6085551023", PageRequest.of(0, 5)))
+			.extracting(OwnerSummary::lastName)
+			.containsExactly("Franklin");
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the pet lookups of {@link Owner}, served by its {@link PetIndex}.
+ */
+class OwnerTests {
+
+	@Test
+	void shouldFindPetsByIdAndNameIgnoringCase() {
+		Owner owner = owner(pet(1, "Leo"), pet(2, "Basil"));
+
+		assertThat(owner.getPet(2)).extracting(Pet::getName).isEqualTo("Basil");
+		assertThat(owner.getPet("LEO")).extracting(Pet::getId).isEqualTo(1);
+		assertThat(owner.getPet(3)).isNull();
+		assertThat(owner.getPet((Integer) null)).isNull();
+		assertThat(owner.getPet("Rosy")).isNull();
+		assertThat(owner.getPet((String) null)).isNull();
+	}
+
+	@Test
+	void shouldFindPetsAddedAndRemovedAfterIndexing() {
+		Owner owner = owner(pet(1, "Leo"));
+		assertThat(owner.getPet("leo")).isNotNull();
+
+		Pet basil = pet(null, "Basil");
+		owner.addPet(basil);
+		assertThat(owner.getPet("basil")).isSameAs(basil);
+		assertThat(owner.getPet("basil", true)).isNull();
+
+		owner.removePet(owner.getPet(1));
+		assertThat(owner.getPet(1)).isNull();
+		assertThat(owner.getPet("leo")).isNull();
+		assertThat(owner.getPets()).containsExactly(basil);
+	}
+
+	@Test
+	void shouldFindPetByIdOnceSaved() {
+		Owner owner = owner(pet(1, "Leo"));
+		Pet basil = pet(null, "Basil");
+		owner.addPet(basil);
+		assertThat(owner.getPet(1)).isNotNull();
+
+		basil.setId(2);
+
+		assertThat(owner.getPet(2)).isSameAs(basil);
+		assertThat(owner.getPet("basil", true)).isSameAs(basil);
+	}
+
+	@Test
+	void shouldFindRenamedPet() {
+		Owner owner = owner(pet(1, "Leo"));
+		assertThat(owner.getPet("leo")).isNotNull();
+
+		owner.renamePet(owner.getPet(1), "Rex");
+
+		assertThat(owner.getPet("leo")).isNull();
+		assertThat(owner.getPet("rex")).extracting(Pet::getId).isEqualTo(1);
+	}
+
+	@Test
+	void shouldReindexPetsAttachedLater() {
+		Owner owner = owner(pet(1, "Leo"));
+		assertThat(owner.getPet(1)).isNotNull();
+
+		owner.setPets(List.of(pet(2, "Basil")));
+
+		assertThat(owner.getPet(1)).isNull();
+		assertThat(owner.getPet("basil")).extracting(Pet::getId).isEqualTo(2);
+	}
+
+	@Test
+	void shouldReturnFirstPetAmongEqualNames() {
+		Pet saved = pet(1, "Max");
+		Owner owner = owner(saved);
+		Pet unsaved = pet(null, "max");
+		owner.addPet(unsaved);
+
+		assertThat(owner.getPet("MAX")).isSameAs(saved);
+		owner.removePet(saved);
+		assertThat(owner.getPet("MAX")).isSameAs(unsaved);
+		assertThat(owner.getPet("MAX", true)).isNull();
+	}
+
+	@Test
+	void shouldFoldNamesLikeEqualsIgnoreCase() {
+		assertThat(PetIndex.fold("Ünal")).isEqualTo(PetIndex.fold("üNAL"));
+		assertThat(PetIndex.fold("Leo")).isNotEqualTo(PetIndex.fold("Lea"));
+	}
+
+	private static Owner owner(Pet... pets) {
+		Owner owner = new Owner();
+		owner.setPets(List.of(pets));
+		return owner;
+	}
+
+	private static Pet pet(Integer id, String name) {
+		Pet pet = new Pet();
+		pet.setId(id);
+		pet.setName(name);
+		return pet;
+	}
+
+}
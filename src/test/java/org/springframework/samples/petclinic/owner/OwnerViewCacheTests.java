@@ -0,0 +1,96 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Tests for {@link OwnerViewCache}.
+ */
+class OwnerViewCacheTests {
+
+	private OwnerViewCache views;
+
+	@BeforeEach
+	void setup() {
+		SimpleCacheManager cacheManager = new SimpleCacheManager();
+		cacheManager
+			.setCaches(List.of(new CaffeineCache(OwnerRepository.VIEW_CACHE, Caffeine.newBuilder().build())));
+		cacheManager.initializeCaches();
+		this.views = new OwnerViewCache(cacheManager);
+	}
+
+	@Test
+	void shouldServeCachedOwner() {
+		OwnerDetails details = details(1);
+
+		views.put(details, views.version());
+
+		assertThat(views.get(1)).containsSame(details);
+		assertThat(views.get(2)).isEmpty();
+	}
+
+	@Test
+	void shouldEvictOwnerWhenSaved() {
+		OwnerDetails details = details(1);
+		views.put(details, views.version());
+
+		views.onOwnerSaved(new OwnerSavedEvent(details.owner()));
+
+		assertThat(views.get(1)).isEmpty();
+	}
+
+	@Test
+	void shouldNotCacheOwnerLoadedBeforeAWrite() {
+		long loadedAt = views.version();
+		views.evict(2);
+
+		views.put(details(1), loadedAt);
+
+		assertThat(views.get(1)).isEmpty();
+	}
+
+	@Test
+	void shouldNotCacheUnsavedOwner() {
+		OwnerDetails details = details(1);
+		details.owner().setId(null);
+
+		views.put(details, views.version());
+
+		assertThat(views.get(1)).isEmpty();
+	}
+
+	private static OwnerDetails details(int id) {
+		Owner owner = new Owner();
+		owner.setId(id);
+		owner.setFirstName("George");
+		owner.setLastName("Franklin");
+		Pet pet = new Pet();
+		pet.setName("Leo");
+		owner.addPet(pet);
+		return OwnerDetails.of(owner, List.of());
+	}
+
+}
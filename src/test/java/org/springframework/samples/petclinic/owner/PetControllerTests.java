@@ -24,6 +24,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -35,6 +36,7 @@ import java.util.Optional;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -52,6 +54,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @WebMvcTest(value = PetController.class,
 		includeFilters = @ComponentScan.Filter(value = PetTypeFormatter.class, type = FilterType.ASSIGNABLE_TYPE))
+@Import(OwnerLoader.class)
 @DisabledInNativeImage
 @DisabledInAotMode
 class PetControllerTests {
@@ -69,6 +72,12 @@ class PetControllerTests {
 	@MockitoBean
 	private PetTypeRepository types;
 
+	@MockitoBean
+	private OwnerViewCache ownerViews;
+
+	@MockitoBean
+	private VisitRepository visits;
+
 	@BeforeEach
 	void setup() {
 		PetType cat = new PetType();
@@ -85,7 +94,7 @@ class PetControllerTests {
 		dog.setId(TEST_PET_ID + 1);
 		pet.setName("petty");
 		dog.setName("doggy");
-		given(this.owners.findById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
+		given(this.owners.findWithPetsById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
 	}
 
 	@Test
@@ -172,21 +181,66 @@ class PetControllerTests {
 				.andExpect(view().name("pets/createOrUpdatePetForm"));
 		}
 
+		@Test
+		void testInitUpdateFormLoadsOwnerOnce() throws Exception {
+			mockMvc.perform(get("/owners/{ownerId}/pets/{petId}/edit", TEST_OWNER_ID, TEST_PET_ID))
+				.andExpect(status().isOk());
+
+			// shared by the owner and pet model attributes
+			verify(owners, times(1)).findWithPetsById(TEST_OWNER_ID);
+		}
+
 	}
 
 	@Test
 	void testProcessUpdateFormSuccess() throws Exception {
+		given(owners.updatePetDetails(org.mockito.ArgumentMatchers.any(Owner.class),
+				org.mockito.ArgumentMatchers.any(Pet.class)))
+			.willReturn(true);
+
 		mockMvc
 			.perform(post("/owners/{ownerId}/pets/{petId}/edit", TEST_OWNER_ID, TEST_PET_ID).param("name", "Betty")
 				.param("type", "hamster")
 				.param("birthDate", "2015-02-12"))
 			.andExpect(status().is3xxRedirection())
-			.andExpect(view().name("redirect:/owners/{ownerId}"));
+			.andExpect(view().name("redirect:/owners/{ownerId}"))
+			.andExpect(flash().attribute("message", is("Pet details has been edited")));
+
+		verify(owners).updatePetDetails(org.mockito.ArgumentMatchers.any(Owner.class),
+				org.mockito.ArgumentMatchers
+					.argThat(pet -> pet.getId() == TEST_PET_ID && "Betty".equals(pet.getName())));
+		verify(owners, never()).save(org.mockito.ArgumentMatchers.any(Owner.class));
+	}
+
+	@Test
+	void testProcessUpdateFormPetNoLongerOwned() throws Exception {
+		// the repository updated no row, the pet was deleted or moved meanwhile
+		given(owners.updatePetDetails(org.mockito.ArgumentMatchers.any(Owner.class),
+				org.mockito.ArgumentMatchers.any(Pet.class)))
+			.willReturn(false);
+
+		mockMvc
+			.perform(post("/owners/{ownerId}/pets/{petId}/edit", TEST_OWNER_ID, TEST_PET_ID).param("name", "Betty")
+				.param("type", "hamster")
+				.param("birthDate", "2015-02-12"))
+			.andExpect(status().is3xxRedirection())
+			.andExpect(view().name("redirect:/owners/{ownerId}"))
+			.andExpect(flash().attribute("error", is("Pet not found with id: " + TEST_PET_ID)))
+			.andExpect(flash().attributeCount(1));
 	}
 
 	@Nested
 	class ProcessDeletePet {
 
+		@BeforeEach
+		void setup() {
+			// the repository checks in SQL that the pet belongs to the owner
+			given(owners.deletePet(org.mockito.ArgumentMatchers.any(Owner.class),
+					org.mockito.ArgumentMatchers.anyInt()))
+				.willAnswer(invocation -> invocation.getArgument(0, Owner.class)
+					.getPet(invocation.getArgument(1, Integer.class)) != null);
+		}
+
 		@Test
 		void testProcessDeletePetSuccess() throws Exception {
 			mockMvc.perform(post("/owners/{ownerId}/pets/{petId}/delete", TEST_OWNER_ID, TEST_PET_ID))
@@ -194,7 +248,9 @@ class PetControllerTests {
 				.andExpect(view().name("redirect:/owners/{ownerId}"))
 				.andExpect(flash().attribute("message", is("Pet has been deleted")));
 
-			verify(owners).save(org.mockito.ArgumentMatchers.any(Owner.class));
+			verify(owners).deletePet(org.mockito.ArgumentMatchers.any(Owner.class),
+					org.mockito.ArgumentMatchers.eq(TEST_PET_ID));
+			verify(owners, never()).save(org.mockito.ArgumentMatchers.any(Owner.class));
 		}
 
 		@Test
@@ -216,8 +272,8 @@ class PetControllerTests {
 
 		@Test
 		void testProcessDeletePetWithVisits() throws Exception {
-			// The pet in setUp already exists; add visits to it to confirm cascade
-			Owner owner = owners.findById(TEST_OWNER_ID).get();
+			// The pet in setUp already exists; its visits are deleted along with it
+			Owner owner = owners.findWithPetsById(TEST_OWNER_ID).get();
 			Pet pet = owner.getPet(TEST_PET_ID);
 			Visit visit = new Visit();
 			visit.setDate(LocalDate.now());
@@ -229,7 +285,9 @@ class PetControllerTests {
 				.andExpect(view().name("redirect:/owners/{ownerId}"))
 				.andExpect(flash().attribute("message", is("Pet has been deleted")));
 
-			verify(owners).save(org.mockito.ArgumentMatchers.any(Owner.class));
+			verify(owners).deletePet(org.mockito.ArgumentMatchers.any(Owner.class),
+					org.mockito.ArgumentMatchers.eq(TEST_PET_ID));
+			verify(owners, never()).save(org.mockito.ArgumentMatchers.any(Owner.class));
 		}
 
 		@Test
@@ -241,7 +299,8 @@ class PetControllerTests {
 				.andExpect(view().name("redirect:/owners/{ownerId}"))
 				.andExpect(flash().attribute("message", is("Pet has been deleted")));
 
-			verify(owners).save(org.mockito.ArgumentMatchers.any(Owner.class));
+			verify(owners).deletePet(org.mockito.ArgumentMatchers.any(Owner.class),
+					org.mockito.ArgumentMatchers.eq(TEST_PET_ID + 1));
 		}
 
 	}
@@ -273,6 +332,21 @@ class PetControllerTests {
 				.andExpect(view().name("pets/createOrUpdatePetForm"));
 		}
 
+		@Test
+		void testProcessUpdateFormWithNameOfSiblingListedAfter() throws Exception {
+			// the edited pet comes first in the owner's pets, and is renamed by binding
+			mockMvc
+				.perform(post("/owners/{ownerId}/pets/{petId}/edit", TEST_OWNER_ID, TEST_PET_ID).param("name", "Doggy")
+					.param("type", "hamster")
+					.param("birthDate", "2015-02-12"))
+				.andExpect(model().attributeHasErrors("pet"))
+				.andExpect(model().attributeHasFieldErrorCode("pet", "name", "duplicate"))
+				.andExpect(view().name("pets/createOrUpdatePetForm"));
+
+			verify(owners, never()).updatePetDetails(org.mockito.ArgumentMatchers.any(Owner.class),
+					org.mockito.ArgumentMatchers.any(Pet.class));
+		}
+
 	}
 
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.samples.petclinic.Benchmark;
+
+/**
+ * Benchmark for {@link Owner#getPet(Integer)} and {@link Owner#getPet(String, boolean)},
+ * comparing the {@link PetIndex} with the linear scan over the pets it replaced, for
+ * owners with 1 to 1,000 pets. It logs the average cost of a lookup in nanoseconds.
+ */
+@Benchmark
+class PetLookupBenchmark {
+
+	private static final Log logger = LogFactory.getLog(PetLookupBenchmark.class);
+
+	private static final int[] PET_COUNTS = { 1, 10, 100, 1_000 };
+
+	private static final int LOOKUPS = 2_000_000;
+
+	private static final int ROUNDS = 5;
+
+	private int sink;
+
+	@Test
+	void lookup() {
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("%n=== pet lookup, ns per lookup ===%n"));
+		report.append(String.format("%8s %12s %12s %12s %12s%n", "pets", "id scan", "id index", "name scan",
+				"name index"));
+		for (int petCount : PET_COUNTS) {
+			Owner owner = owner(petCount);
+			Random random = new Random(42);
+			Integer[] ids = new Integer[LOOKUPS];
+			String[] names = new String[LOOKUPS];
+			for (int i = 0; i < LOOKUPS; i++) {
+				int id = 1 + random.nextInt(petCount);
+				ids[i] = id;
+				names[i] = "PET-" + id;
+			}
+			double idScan = 0;
+			double idIndex = 0;
+			double nameScan = 0;
+			double nameIndex = 0;
+			for (int round = 0; round < ROUNDS; round++) {
+				// the first round warms up
+				double weight = (round == 0) ? 0 : 1.0 / (ROUNDS - 1);
+				idScan += weight * time(() -> {
+					for (Integer id : ids) {
+						this.sink += scan(owner, id).hashCode();
+					}
+				});
+				idIndex += weight * time(() -> {
+					for (Integer id : ids) {
+						this.sink += owner.getPet(id).hashCode();
+					}
+				});
+				nameScan += weight * time(() -> {
+					for (String name : names) {
+						this.sink += scan(owner, name).hashCode();
+					}
+				});
+				nameIndex += weight * time(() -> {
+					for (String name : names) {
+						this.sink += owner.getPet(name, false).hashCode();
+					}
+				});
+			}
+			report.append(String.format("%,8d %12.1f %12.1f %12.1f %12.1f%n", petCount, idScan, idIndex, nameScan,
+					nameIndex));
+		}
+		logger.info(report);
+	}
+
+	private static double time(Runnable lookups) {
+		long start = System.nanoTime();
+		lookups.run();
+		return (double) (System.nanoTime() - start) / LOOKUPS;
+	}
+
+	private static Owner owner(int petCount) {
+		List<Pet> pets = new ArrayList<>(petCount);
+		for (int id = 1; id <= petCount; id++) {
+			Pet pet = new Pet();
+			pet.setId(id);
+			pet.setName("Pet-" + id);
+			pets.add(pet);
+		}
+		Owner owner = new Owner();
+		owner.setPets(pets);
+		return owner;
+	}
+
+	private static Pet scan(Owner owner, Integer id) {
+		for (Pet pet : owner.getPets()) {
+			if (!pet.isNew() && id.equals(pet.getId())) {
+				return pet;
+			}
+		}
+		return null;
+	}
+
+	private static Pet scan(Owner owner, String name) {
+		for (Pet pet : owner.getPets()) {
+			if (pet.getName() != null && pet.getName().equalsIgnoreCase(name)) {
+				return pet;
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.Benchmark;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Benchmark for the read-only transactions of the GET handlers, loading an owner with
+ * {@value #PETS} pets and {@value #VISITS} visits as the visit form does, once in a
+ * read-only and once in a read-write transaction. A read-only transaction loads the
+ * entities without keeping a snapshot of their state and is never flushed, so nothing
+ * is dirty checked at commit. For each mode it logs the heap allocated and the CPU time
+ * spent per request by the calling thread.
+ */
+@Benchmark
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(Lifecycle.PER_CLASS)
+@DirtiesContext
+class ReadOnlyTransactionBenchmark {
+
+	private static final Log logger = LogFactory.getLog(ReadOnlyTransactionBenchmark.class);
+
+	private static final int OWNER_ID = 1_000;
+
+	private static final int FIRST_PET_ID = 1_000;
+
+	private static final int PETS = 20;
+
+	private static final int VISITS = 500;
+
+	private static final int WARMUP = 50;
+
+	private static final int ITERATIONS = 500;
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeAll
+	void populate() {
+		this.jdbcTemplate.update("INSERT INTO owners (id, first_name, last_name, address, city, telephone) "
+				+ "VALUES (?, 'Busy', 'Owner', '1 Kennel Rd.', 'Madison', '6085550000')", OWNER_ID);
+		List<Object[]> pets = new ArrayList<>(PETS);
+		for (int i = 0; i < PETS; i++) {
+			pets.add(new Object[] { FIRST_PET_ID + i, "Pet" + i, LocalDate.of(2015, 1, 1), 1, OWNER_ID });
+		}
+		this.jdbcTemplate.batchUpdate(
+				"INSERT INTO pets (id, name, birth_date, type_id, owner_id) VALUES (?, ?, ?, ?, ?)", pets);
+		List<Object[]> visits = new ArrayList<>(VISITS);
+		for (int i = 0; i < VISITS; i++) {
+			visits.add(new Object[] { FIRST_PET_ID + i % PETS, LocalDate.of(2020, 1, 1).plusDays(i), "visit " + i });
+		}
+		this.jdbcTemplate.batchUpdate("INSERT INTO visits (pet_id, visit_date, description) VALUES (?, ?, ?)",
+				visits);
+	}
+
+	@Test
+	void loadOwner() {
+		Result readWrite = measure(false);
+		Result readOnly = measure(true);
+
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("%n=== load an owner with %d pets and %d visits ===%n", PETS, VISITS));
+		report.append("read-write   ").append(readWrite).append('\n');
+		report.append("read-only    ").append(readOnly).append('\n');
+		logger.info(report);
+	}
+
+	private Result measure(boolean readOnly) {
+		TransactionTemplate transaction = new TransactionTemplate(this.transactionManager);
+		transaction.setReadOnly(readOnly);
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		for (int i = 0; i < WARMUP; i++) {
+			transaction.execute(status -> this.owners.findWithPetsAndVisitsById(OWNER_ID));
+		}
+		long bytes = threads.getCurrentThreadAllocatedBytes();
+		long cpu = threads.getCurrentThreadCpuTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			transaction.execute(status -> this.owners.findWithPetsAndVisitsById(OWNER_ID));
+		}
+		return new Result((double) (threads.getCurrentThreadAllocatedBytes() - bytes) / ITERATIONS,
+				(double) (threads.getCurrentThreadCpuTime() - cpu) / ITERATIONS);
+	}
+
+	private record Result(double bytesPerRequest, double cpuNanosPerRequest) {
+
+		@Override
+		public String toString() {
+			return String.format("allocated=%.1f KB  cpu=%.3f ms", this.bytesPerRequest / 1024,
+					this.cpuNanosPerRequest / 1_000_000);
+		}
+
+	}
+
+}
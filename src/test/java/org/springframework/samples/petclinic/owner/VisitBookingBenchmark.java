@@ -0,0 +1,149 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.Benchmark;
+import org.springframework.samples.petclinic.Latencies;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Benchmark for booking a visit, comparing the direct insert through
+ * {@link VisitRepository#addVisit} with the former path that loaded the owner with all
+ * its pets and visits, added the visit and saved the owner. The owner has
+ * {@value #PETS} pets and {@value #VISITS} visits. For each path it logs the SQL
+ * statements issued per booking and latency percentiles, and checks that the direct
+ * insert issues fewer statements.
+ */
+@Benchmark
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(Lifecycle.PER_CLASS)
+@DirtiesContext
+class VisitBookingBenchmark {
+
+	private static final Log logger = LogFactory.getLog(VisitBookingBenchmark.class);
+
+	private static final int OWNER_ID = 1_000;
+
+	private static final int FIRST_PET_ID = 1_000;
+
+	private static final int PETS = 20;
+
+	private static final int VISITS = 500;
+
+	private static final int WARMUP = 20;
+
+	private static final int ITERATIONS = 200;
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private VisitRepository visits;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeAll
+	void populate() {
+		this.jdbcTemplate.update("INSERT INTO owners (id, first_name, last_name, address, city, telephone) "
+				+ "VALUES (?, 'Busy', 'Owner', '1 Kennel Rd.', 'Madison', '6085550000')", OWNER_ID);
+		List<Object[]> pets = new ArrayList<>(PETS);
+		for (int i = 0; i < PETS; i++) {
+			pets.add(new Object[] { FIRST_PET_ID + i, "Pet" + i, LocalDate.of(2015, 1, 1), 1, OWNER_ID });
+		}
+		this.jdbcTemplate.batchUpdate(
+				"INSERT INTO pets (id, name, birth_date, type_id, owner_id) VALUES (?, ?, ?, ?, ?)", pets);
+		List<Object[]> visits = new ArrayList<>(VISITS);
+		for (int i = 0; i < VISITS; i++) {
+			visits.add(new Object[] { FIRST_PET_ID + i % PETS, LocalDate.of(2020, 1, 1).plusDays(i), "visit " + i });
+		}
+		this.jdbcTemplate.batchUpdate("INSERT INTO visits (pet_id, visit_date, description) VALUES (?, ?, ?)",
+				visits);
+	}
+
+	@Test
+	void bookVisit() {
+		int petId = FIRST_PET_ID + PETS - 1;
+		Result direct = measure(() -> this.visits.addVisit(OWNER_ID, petId, visit()));
+		Result aggregate = measure(() -> {
+			Owner owner = this.owners.findWithPetsAndVisitsById(OWNER_ID).orElseThrow();
+			owner.addVisit(petId, visit());
+			this.owners.save(owner);
+		});
+
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("%n=== book a visit, owner with %d pets and %d visits ===%n", PETS, VISITS));
+		report.append("direct insert   ").append(direct).append('\n');
+		report.append("load and save   ").append(aggregate).append('\n');
+		logger.info(report);
+		assertThat(direct.statementsPerBooking()).isLessThan(aggregate.statementsPerBooking());
+	}
+
+	private Result measure(Runnable booking) {
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		for (int i = 0; i < WARMUP; i++) {
+			booking.run();
+		}
+		statistics.clear();
+		Latencies latencies = Latencies.measure(0, ITERATIONS, i -> booking.run());
+		long statements = statistics.getPrepareStatementCount();
+		// keep the owner at the same size for the next measurement
+		this.jdbcTemplate.update("DELETE FROM visits WHERE description = 'benchmark'");
+		return new Result((double) statements / ITERATIONS, latencies);
+	}
+
+	private static Visit visit() {
+		Visit visit = new Visit();
+		visit.setDescription("benchmark");
+		return visit;
+	}
+
+	private record Result(double statementsPerBooking, Latencies latencies) {
+
+		@Override
+		public String toString() {
+			return String.format("statements=%.1f  %s", this.statementsPerBooking, this.latencies);
+		}
+
+	}
+
+}
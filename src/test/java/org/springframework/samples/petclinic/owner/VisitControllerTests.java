@@ -16,7 +16,14 @@
 
 package org.springframework.samples.petclinic.owner;
 
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
@@ -28,10 +35,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -41,6 +53,7 @@ import java.util.Optional;
  * @author Wick Dynex
  */
 @WebMvcTest(VisitController.class)
+@Import(OwnerLoader.class)
 @DisabledInNativeImage
 @DisabledInAotMode
 class VisitControllerTests {
@@ -55,13 +68,21 @@ class VisitControllerTests {
 	@MockitoBean
 	private OwnerRepository owners;
 
+	@MockitoBean
+	private VisitRepository visits;
+
+	@MockitoBean
+	private OwnerViewCache ownerViews;
+
 	@BeforeEach
 	void init() {
 		Owner owner = new Owner();
 		Pet pet = new Pet();
 		owner.addPet(pet);
 		pet.setId(TEST_PET_ID);
-		given(this.owners.findById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
+		given(this.owners.findWithPetsAndVisitsById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
+		given(this.owners.findWithPetsById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
+		given(this.visits.addVisit(eq(TEST_OWNER_ID), eq(TEST_PET_ID), any(Visit.class))).willReturn(true);
 	}
 
 	@Test
@@ -71,6 +92,24 @@ class VisitControllerTests {
 			.andExpect(view().name("pets/createOrUpdateVisitForm"));
 	}
 
+	@Test
+	void testShowVisitHistory() throws Exception {
+		Visit visit = new Visit();
+		visit.setDescription("rabies shot");
+		given(this.visits.findByPetIdOrderByDateDescIdDesc(eq(TEST_PET_ID), any(Pageable.class)))
+			.willReturn(new PageImpl<>(List.of(visit), PageRequest.of(1, OwnerDetails.RECENT_VISITS), 6));
+
+		mockMvc.perform(get("/owners/{ownerId}/pets/{petId}/visits", TEST_OWNER_ID, TEST_PET_ID).param("page", "2"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("visits", hasSize(1)))
+			.andExpect(model().attribute("currentPage", 2))
+			.andExpect(model().attribute("totalPages", 2))
+			.andExpect(view().name("pets/visitHistory"));
+
+		verify(this.visits).findByPetIdOrderByDateDescIdDesc(TEST_PET_ID,
+				PageRequest.of(1, OwnerDetails.RECENT_VISITS));
+	}
+
 	@Test
 	void testProcessNewVisitFormSuccess() throws Exception {
 		mockMvc
@@ -79,6 +118,12 @@ class VisitControllerTests {
 				.param("description", "Visit Description"))
 			.andExpect(status().is3xxRedirection())
 			.andExpect(view().name("redirect:/owners/{ownerId}"));
+
+		verify(this.visits).addVisit(eq(TEST_OWNER_ID), eq(TEST_PET_ID),
+				argThat(visit -> "Visit Description".equals(visit.getDescription())));
+		verify(this.owners, never()).findWithPetsAndVisitsById(anyInt());
+		verify(this.owners, never()).save(any(Owner.class));
+		verify(this.ownerViews).evict(TEST_OWNER_ID);
 	}
 
 	@Test
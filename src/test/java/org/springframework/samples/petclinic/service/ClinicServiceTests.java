@@ -20,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
@@ -27,14 +28,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.samples.petclinic.owner.Owner;
 import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.OwnerSearchColumnsBackfill;
 import org.springframework.samples.petclinic.owner.Pet;
 import org.springframework.samples.petclinic.owner.PetType;
 import org.springframework.samples.petclinic.owner.PetTypeRepository;
 import org.springframework.samples.petclinic.owner.Visit;
+import org.springframework.samples.petclinic.owner.VisitRepository;
+import org.springframework.samples.petclinic.vet.Specialty;
+import org.springframework.samples.petclinic.vet.SpecialtyFacet;
 import org.springframework.samples.petclinic.vet.Vet;
 import org.springframework.samples.petclinic.vet.VetRepository;
 import org.springframework.transaction.annotation.Transactional;
@@ -70,6 +77,7 @@ import org.springframework.transaction.annotation.Transactional;
 @DataJpaTest
 // Ensure that if the mysql profile is active we connect to the real database:
 @AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import(OwnerSearchColumnsBackfill.class)
 // @TestPropertySource("/application-postgres.properties")
 class ClinicServiceTests {
 
@@ -82,6 +90,9 @@ class ClinicServiceTests {
 	@Autowired
 	protected VetRepository vets;
 
+	@Autowired
+	protected VisitRepository visits;
+
 	private final Pageable pageable = Pageable.unpaged();
 
 	@Test
@@ -212,6 +223,66 @@ class ClinicServiceTests {
 		assertThat(vet.getSpecialties().get(1).getName()).isEqualTo("surgery");
 	}
 
+	@Test
+	void shouldCountVetsPerSpecialty() {
+		List<SpecialtyFacet> facets = this.vets.findSpecialtyFacets("");
+
+		assertThat(facets).containsExactlyInAnyOrder(new SpecialtyFacet(null, 2), new SpecialtyFacet("dentistry", 1),
+				new SpecialtyFacet("radiology", 2), new SpecialtyFacet("surgery", 2));
+		assertThat(facets).map(SpecialtyFacet::name)
+			.filteredOn(name -> name != null)
+			.containsExactly("dentistry", "radiology", "surgery");
+
+		// only Henry Stevens, a radiologist, ignoring case
+		assertThat(this.vets.findSpecialtyFacets("St")).containsExactly(new SpecialtyFacet("radiology", 1));
+		assertThat(this.vets.findSpecialtyFacets("st")).containsExactly(new SpecialtyFacet("radiology", 1));
+		// the wildcard is matched literally
+		assertThat(this.vets.findSpecialtyFacets("%")).isEmpty();
+	}
+
+	@Test
+	void shouldFindVetsBySpecialtyInDatabase() {
+		assertThat(this.vets.findByLastNameAndSpecialties("", List.of(), false, pageable)).extracting(Vet::getId)
+			.containsExactly(1, 2, 3, 4, 5, 6);
+		assertThat(this.vets.findByLastNameAndSpecialties("", List.of("Surgery"), false, pageable))
+			.extracting(Vet::getId)
+			.containsExactly(3, 4);
+		assertThat(this.vets.findByLastNameAndSpecialties("", List.of("none", "radiology"), false, pageable))
+			.extracting(Vet::getId)
+			.containsExactly(1, 2, 5, 6);
+		assertThat(this.vets.findByLastNameAndSpecialties("", List.of("surgery", "dentistry"), true, pageable))
+			.extracting(Vet::getId)
+			.containsExactly(3);
+		assertThat(this.vets.findByLastNameAndSpecialties("", List.of("none"), true, pageable)).extracting(Vet::getId)
+			.containsExactly(1, 6);
+		assertThat(this.vets.findByLastNameAndSpecialties("", List.of("surgery", "cardiology"), true, pageable))
+			.isEmpty();
+		assertThat(this.vets.findByLastNameAndSpecialties("O", List.of("surgery"), false, pageable))
+			.extracting(Vet::getLastName)
+			.containsExactly("Ortega");
+		// the last name is matched ignoring case, like the specialty counts
+		assertThat(this.vets.findByLastNameAndSpecialties("st", List.of("radiology"), false, pageable))
+			.extracting(Vet::getLastName)
+			.containsExactly("Stevens");
+		assertThat(this.vets.findByLastNameAndSpecialties("%", List.of(), false, pageable)).isEmpty();
+	}
+
+	@Test
+	void shouldPageVetsInDatabase() {
+		Page<Vet> first = this.vets.findByLastNameAndSpecialties("", List.of("none", "radiology"), false,
+				PageRequest.of(0, 3));
+		Page<Vet> last = this.vets.findByLastNameAndSpecialties("", List.of("none", "radiology"), false,
+				PageRequest.of(1, 3));
+
+		assertThat(first.getContent()).extracting(Vet::getId).containsExactly(1, 2, 5);
+		assertThat(first.getTotalElements()).isEqualTo(4);
+		assertThat(last.getContent()).extracting(Vet::getId).containsExactly(6);
+		assertThat(last.getTotalPages()).isEqualTo(2);
+		// the specialties come with the page
+		assertThat(first.getContent().get(1).getSpecialties()).extracting(Specialty::getName)
+			.containsExactly("radiology");
+	}
+
 	@Test
 	@Transactional
 	void shouldAddNewVisitForPet() {
@@ -248,4 +319,13 @@ class ClinicServiceTests {
 			.isNotNull();
 	}
 
+	@Test
+	void shouldFindMostRecentVisitsPerPet() {
+		List<Visit> visits = this.visits.findRecentByPetIdIn(List.of(7, 8), 2);
+
+		// pet 7 has three visits, pet 8 two
+		assertThat(visits).extracting(Visit::getDescription)
+			.containsExactly("routine wellness exam", "spayed", "neutered", "rabies shot");
+	}
+
 }
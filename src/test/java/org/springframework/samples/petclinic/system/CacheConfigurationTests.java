@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.cache.autoconfigure.CacheAutoConfiguration;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * Tests for {@link CacheConfiguration}.
+ */
+class CacheConfigurationTests {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+		.withConfiguration(AutoConfigurations.of(CacheAutoConfiguration.class))
+		.withUserConfiguration(CacheConfiguration.class)
+		.withPropertyValues("spring.cache.type=caffeine");
+
+	@Test
+	void shouldRegisterEachRegionWithItsBounds() {
+		this.contextRunner
+			.withPropertyValues("petclinic.cache.regions[vetPages].maximum-size=100",
+					"petclinic.cache.regions[vetPages].expire-after-write=10m",
+					"petclinic.cache.regions[petTypes].maximum-size=1")
+			.run(context -> {
+				CacheManager cacheManager = context.getBean(CacheManager.class);
+				assertThat(cacheManager.getCacheNames()).contains("vetPages", "petTypes");
+
+				Cache<Object, Object> vetPages = nativeCache(cacheManager, "vetPages");
+				assertThat(vetPages.policy().isRecordingStats()).isTrue();
+				assertThat(vetPages.policy().eviction())
+					.hasValueSatisfying(eviction -> assertThat(eviction.getMaximum()).isEqualTo(100));
+				assertThat(vetPages.policy().expireAfterWrite())
+					.hasValueSatisfying(expiration -> assertThat(expiration.getExpiresAfter())
+						.isEqualTo(Duration.ofMinutes(10)));
+
+				Cache<Object, Object> petTypes = nativeCache(cacheManager, "petTypes");
+				assertThat(petTypes.policy().eviction())
+					.hasValueSatisfying(eviction -> assertThat(eviction.getMaximum()).isEqualTo(1));
+				assertThat(petTypes.policy().expireAfterWrite()).isEmpty();
+			});
+	}
+
+	@Test
+	void shouldRegisterApplicationRegions() {
+		this.contextRunner.withInitializer(new ConfigDataApplicationContextInitializer())
+			.run(context -> assertThat(context.getBean(CacheRegionProperties.class).regions()).containsOnlyKeys(
+					"vets", "vetPages", "specialties", "petTypes", "ownerSearch", "ownerSearchCounts", "ownerViews"));
+	}
+
+	private static Cache<Object, Object> nativeCache(CacheManager cacheManager, String name) {
+		return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+	}
+
+}
@@ -22,7 +22,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.aot.DisabledInAotMode;
@@ -31,11 +34,15 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
-import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -44,6 +51,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 
 @WebMvcTest(VetController.class)
+@Import(VetDirectory.class)
 @DisabledInNativeImage
 @DisabledInAotMode
 class VetControllerTests {
@@ -79,12 +87,10 @@ class VetControllerTests {
 		given(this.vets.findAll()).willReturn(Lists.newArrayList(james(), helen()));
 		given(this.vets.findAll(any(Pageable.class)))
 			.willReturn(new PageImpl<Vet>(Lists.newArrayList(james(), helen())));
-		given(this.vets.findByLastNameStartingWith(eq(""), any(Pageable.class)))
+		given(this.vets.findByLastNameAndSpecialties(anyString(), anyCollection(), anyBoolean(), any(Pageable.class)))
 			.willReturn(new PageImpl<Vet>(Lists.newArrayList(james(), helen())));
-		given(this.vets.findByLastNameStartingWith(eq("Carter"), any(Pageable.class)))
-			.willReturn(new PageImpl<Vet>(Lists.newArrayList(james())));
-		given(this.vets.findByLastNameStartingWith(eq("Unknown"), any(Pageable.class)))
-			.willReturn(new PageImpl<Vet>(Collections.emptyList()));
+		given(this.vets.findSpecialtyFacets(""))
+			.willReturn(List.of(new SpecialtyFacet(null, 1), new SpecialtyFacet("radiology", 1)));
 	}
 
 	@Test
@@ -98,6 +104,17 @@ class VetControllerTests {
 
 	}
 
+	@Test
+	void testShowVetListSpecialtyFacets() throws Exception {
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/vets.html"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("specialties", List.of(new SpecialtyFacet("radiology", 1))))
+			.andExpect(model().attribute("vetsWithoutSpecialty", 1L))
+			.andExpect(view().name("vets/vetList"));
+
+	}
+
 	@Test
 	void testShowVetListFilteredBySpecialty() throws Exception {
 
@@ -120,6 +137,32 @@ class VetControllerTests {
 
 	}
 
+	@Test
+	void testShowVetListFilteredBySeveralSpecialties() throws Exception {
+
+		mockMvc
+			.perform(MockMvcRequestBuilders.get("/vets.html")
+				.param("specialty", "none")
+				.param("specialties", "Radiology"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("selectedSpecialties", List.of("Radiology")))
+			.andExpect(view().name("vets/vetList"));
+		then(this.vets).should()
+			.findByLastNameAndSpecialties("", List.of("Radiology", "none"), false, PageRequest.of(0, 5));
+
+		mockMvc
+			.perform(MockMvcRequestBuilders.get("/vets.html")
+				.param("specialty", "none")
+				.param("specialties", "Radiology")
+				.param("match", "all"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("match", "all"))
+			.andExpect(view().name("vets/vetList"));
+		then(this.vets).should()
+			.findByLastNameAndSpecialties("", List.of("Radiology", "none"), true, PageRequest.of(0, 5));
+
+	}
+
 	@Test
 	void testShowVetListNoSpecialtyParam() throws Exception {
 
@@ -142,6 +185,8 @@ class VetControllerTests {
 
 	@Test
 	void testShowVetListNoResults() throws Exception {
+		given(this.vets.findByLastNameAndSpecialties(eq("Unknown"), anyCollection(), anyBoolean(), any(Pageable.class)))
+			.willReturn(Page.empty(PageRequest.of(0, 5)));
 		mockMvc.perform(MockMvcRequestBuilders.get("/vets.html").param("page", "1").param("lastName", "Unknown"))
 			.andExpect(status().isOk())
 			.andExpect(model().attributeExists("listVets"))
@@ -157,4 +202,16 @@ class VetControllerTests {
 			.andExpect(jsonPath("$.vetList[0].id").value(1));
 	}
 
+	@Test
+	void testShowResourcesVetListFilteredBySpecialty() throws Exception {
+		mockMvc.perform(get("/vets").param("specialties", "radiology").accept(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.vetList.length()").value(1))
+			.andExpect(jsonPath("$.vetList[0].id").value(2));
+		mockMvc.perform(get("/vets").param("specialties", "none").accept(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.vetList.length()").value(1))
+			.andExpect(jsonPath("$.vetList[0].id").value(1));
+	}
+
 }
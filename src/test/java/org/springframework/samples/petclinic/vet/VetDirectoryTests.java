@@ -0,0 +1,99 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link VetDirectory}.
+ */
+class VetDirectoryTests {
+
+	private final VetRepository vets = mock(VetRepository.class);
+
+	private final VetDirectory directory = new VetDirectory(this.vets);
+
+	private final Vet carter = vet(1, "Carter");
+
+	private final Vet leary = vet(2, "Leary", "radiology");
+
+	private final Vet douglas = vet(3, "Douglas", "surgery", "dentistry");
+
+	private final Vet ortega = vet(4, "Ortega", "surgery");
+
+	@BeforeEach
+	void setup() {
+		given(this.vets.findAll()).willReturn(List.of(this.carter, this.leary, this.douglas, this.ortega));
+	}
+
+	@Test
+	void shouldFindAllVetsWithoutSpecialties() {
+		assertThat(this.directory.find(List.of(), false)).containsExactly(this.carter, this.leary, this.douglas,
+				this.ortega);
+		assertThat(this.directory.find(List.of(), true)).containsExactly(this.carter, this.leary, this.douglas,
+				this.ortega);
+	}
+
+	@Test
+	void shouldFindVetsHavingAnySpecialty() {
+		assertThat(this.directory.find(List.of("Surgery"), false)).containsExactly(this.douglas, this.ortega);
+		assertThat(this.directory.find(List.of("radiology", "dentistry"), false)).containsExactly(this.leary,
+				this.douglas);
+		assertThat(this.directory.find(List.of("none", "radiology"), false)).containsExactly(this.carter, this.leary);
+		assertThat(this.directory.find(List.of("cardiology"), false)).isEmpty();
+	}
+
+	@Test
+	void shouldFindVetsHavingAllSpecialties() {
+		assertThat(this.directory.find(List.of("surgery", "dentistry"), true)).containsExactly(this.douglas);
+		assertThat(this.directory.find(List.of("none"), true)).containsExactly(this.carter);
+		assertThat(this.directory.find(List.of("none", "surgery"), true)).isEmpty();
+		assertThat(this.directory.find(List.of("surgery", "cardiology"), true)).isEmpty();
+	}
+
+	@Test
+	void shouldRebuildWhenTheVetsAreReadAgain() {
+		assertThat(this.directory.find(List.of("cardiology"), false)).isEmpty();
+
+		List<Vet> reread = new ArrayList<>(List.of(this.carter, this.leary, this.douglas, this.ortega));
+		Vet stevens = vet(5, "Stevens", "cardiology");
+		reread.add(stevens);
+		given(this.vets.findAll()).willReturn(reread);
+
+		assertThat(this.directory.find(List.of("cardiology"), false)).containsExactly(stevens);
+	}
+
+	private static Vet vet(int id, String lastName, String... specialties) {
+		Vet vet = new Vet();
+		vet.setId(id);
+		vet.setLastName(lastName);
+		for (String name : specialties) {
+			Specialty specialty = new Specialty();
+			specialty.setName(name);
+			vet.addSpecialty(specialty);
+		}
+		return vet;
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Tests for {@link VetPageKey}.
+ */
+class VetPageKeyTests {
+
+	@Test
+	void shouldKeyByPageSizeAndSort() {
+		assertThat(VetPageKey.of(PageRequest.of(1, 5))).isEqualTo(VetPageKey.of(PageRequest.of(1, 5)));
+		assertThat(VetPageKey.of(PageRequest.of(1, 5))).isNotEqualTo(VetPageKey.of(PageRequest.of(0, 5)))
+			.isNotEqualTo(VetPageKey.of(PageRequest.of(1, 10)))
+			.isNotEqualTo(VetPageKey.of(PageRequest.of(1, 5, Sort.by("lastName"))));
+		assertThat(VetPageKey.of(Pageable.unpaged())).isEqualTo(new VetPageKey(-1, -1, Sort.unsorted()));
+	}
+
+	@Test
+	void shouldGenerateKeyFromPageable() {
+		assertThat(new VetPageKey.Generator().generate(null, null, PageRequest.of(0, 5)))
+			.isEqualTo(VetPageKey.of(PageRequest.of(0, 5)));
+	}
+
+}
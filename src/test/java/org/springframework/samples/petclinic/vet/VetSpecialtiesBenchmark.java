@@ -0,0 +1,140 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.samples.petclinic.Benchmark;
+import org.springframework.samples.petclinic.model.NamedEntity;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Benchmark for {@link Vet#getSpecialties()}, comparing the cached sorted list with the
+ * sorted copy it used to return on every call. Rendering a page of {@value #VETS} vets
+ * reads the specialties of each vet twice: once to filter by specialty and once in the
+ * template. It logs the heap allocated and the time spent per page.
+ */
+@Benchmark
+class VetSpecialtiesBenchmark {
+
+	private static final Log logger = LogFactory.getLog(VetSpecialtiesBenchmark.class);
+
+	private static final int VETS = 500;
+
+	private static final int WARMUP = 2_000;
+
+	private static final int PAGES = 20_000;
+
+	private static final String[] SPECIALTIES = { "radiology", "surgery", "dentistry", "cardiology" };
+
+	private int sink;
+
+	@Test
+	void renderPage() {
+		List<Vet> vets = vets();
+		Result copied = measure(vets, VetSpecialtiesBenchmark::sortedCopy);
+		Result cached = measure(vets, Vet::getSpecialties);
+
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("%n=== specialties of a page of %d vets ===%n", VETS));
+		report.append("sorted copy   ").append(copied).append('\n');
+		report.append("cached        ").append(cached).append('\n');
+		logger.info(report);
+	}
+
+	private Result measure(List<Vet> vets, Function<Vet, List<Specialty>> specialties) {
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		for (int i = 0; i < WARMUP; i++) {
+			render(vets, specialties);
+		}
+		long bytes = threads.getCurrentThreadAllocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < PAGES; i++) {
+			render(vets, specialties);
+		}
+		long nanos = System.nanoTime() - start;
+		return new Result((double) (threads.getCurrentThreadAllocatedBytes() - bytes) / PAGES,
+				(double) nanos / PAGES);
+	}
+
+	private void render(List<Vet> vets, Function<Vet, List<Specialty>> specialties) {
+		for (Vet vet : vets) {
+			// the specialty filter
+			for (Specialty specialty : specialties.apply(vet)) {
+				if (specialty.getName().equalsIgnoreCase("surgery")) {
+					this.sink++;
+				}
+			}
+			// the template
+			for (Specialty specialty : specialties.apply(vet)) {
+				this.sink += specialty.getName().length();
+			}
+		}
+	}
+
+	/**
+	 * What {@link Vet#getSpecialties()} did before it was cached.
+	 */
+	private static List<Specialty> sortedCopy(Vet vet) {
+		return vet.getSpecialtiesInternal()
+			.stream()
+			.sorted(Comparator.comparing(NamedEntity::getName))
+			.collect(Collectors.toList());
+	}
+
+	private static List<Vet> vets() {
+		List<Specialty> specialties = new ArrayList<>();
+		for (int id = 0; id < SPECIALTIES.length; id++) {
+			Specialty specialty = new Specialty();
+			specialty.setId(id + 1);
+			specialty.setName(SPECIALTIES[id]);
+			specialties.add(specialty);
+		}
+		List<Vet> vets = new ArrayList<>(VETS);
+		for (int id = 1; id <= VETS; id++) {
+			Vet vet = new Vet();
+			vet.setId(id);
+			vet.setFirstName("First" + id);
+			vet.setLastName("Last" + id);
+			// zero to three specialties per vet
+			for (int i = 0; i < id % 4; i++) {
+				vet.addSpecialty(specialties.get((id + i) % specialties.size()));
+			}
+			vets.add(vet);
+		}
+		return vets;
+	}
+
+	private record Result(double bytesPerPage, double nanosPerPage) {
+
+		@Override
+		public String toString() {
+			return String.format("allocated=%.1f KB  time=%.3f ms", this.bytesPerPage / 1024,
+					this.nanosPerPage / 1_000_000);
+		}
+
+	}
+
+}